@@ -0,0 +1,105 @@
+package fcu.web;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compares ParallelBiconnectivity with the sequential DFS on random graphs, including disconnected ones and ones
+ * with parallel edges, and checks both against brute force on the small ones. Exits with status 1 on a mismatch.
+ * Run with -Djava.util.concurrent.ForkJoinPool.common.parallelism=4 or more so the parallel steps really split.
+ * Usage: BiconnectivityCheck [trials] [seed], defaults 500 and 1.
+ */
+public class BiconnectivityCheck {
+    private BiconnectivityCheck() {
+    }
+
+    public static void main(String[] args) {
+        int trials = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 1);
+        int failures = 0;
+        for (int trial = 0; trial < trials; trial++) {
+            // Mostly small graphs for the brute force, every tenth one large enough to span several chunks
+            int n = trial % 10 == 9 ? 5000 + random.nextInt(20000) : 2 + random.nextInt(60);
+            Graph graph = randomGraph(n, random);
+            CompressedAdjacency adjacency = graph.compressedAdjacency();
+            BitSet parallel = ParallelBiconnectivity.articulationPoints(adjacency);
+            BitSet dfs = toBitSet(graph.findCriticalNodes());
+            if (!parallel.equals(dfs)) {
+                failures++;
+                report(trial, graph, "parallel " + parallel.cardinality() + ", dfs " + dfs.cardinality());
+            } else if (n <= 64 && !dfs.equals(bruteForce(adjacency))) {
+                failures++;
+                report(trial, graph, "dfs " + dfs + ", brute force " + bruteForce(adjacency));
+            }
+        }
+        System.out.printf("%d trials, %d failures%n", trials, failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    // A random forest for the skeleton, then extra edges; some trials repeat edges or leave vertices isolated
+    private static Graph randomGraph(int n, Random random) {
+        Graph graph = new Graph(n);
+        int isolated = random.nextInt(4) == 0 ? random.nextInt(n) : n;
+        for (int v = 1; v < isolated; v++) {
+            if (random.nextInt(20) > 0) graph.addEdge(v, random.nextInt(v), 1 + random.nextInt(9));
+        }
+        int extra = random.nextInt(n);
+        boolean duplicates = random.nextBoolean();
+        for (int i = 0; i < extra; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (u != v && (duplicates || !graph.hasEdge(u, v))) graph.addEdge(u, v, 1 + random.nextInt(9));
+        }
+        return graph;
+    }
+
+    // v is an articulation point iff removing it splits its component
+    private static BitSet bruteForce(CompressedAdjacency adjacency) {
+        BitSet cut = new BitSet();
+        CompressedAdjacency.Cursor cursor = adjacency.cursor();
+        int base = components(adjacency, -1);
+        for (int v = 0; v < adjacency.vertexCount(); v++) {
+            // An isolated v is a component of its own, so removing it leaves one fewer
+            cursor.reset(v);
+            if (components(adjacency, v) > base - (cursor.next() ? 0 : 1)) cut.set(v);
+        }
+        return cut;
+    }
+
+    private static int components(CompressedAdjacency adjacency, int removed) {
+        int n = adjacency.vertexCount();
+        boolean[] seen = new boolean[n];
+        CompressedAdjacency.Cursor cursor = adjacency.cursor();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int count = 0;
+        for (int s = 0; s < n; s++) {
+            if (s == removed || seen[s]) continue;
+            count++;
+            seen[s] = true;
+            queue.add(s);
+            while (!queue.isEmpty()) {
+                cursor.reset(queue.poll());
+                while (cursor.next()) {
+                    int w = cursor.neighbor();
+                    if (w != removed && !seen[w]) {
+                        seen[w] = true;
+                        queue.add(w);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static BitSet toBitSet(Set<Integer> vertices) {
+        BitSet bits = new BitSet();
+        for (int v : vertices) bits.set(v);
+        return bits;
+    }
+
+    private static void report(int trial, Graph graph, String detail) {
+        System.out.printf("trial %d (%d vertices, %d edges): %s%n",
+                trial, graph.getVertexCount(), graph.getEdgeCount(), detail);
+    }
+}
@@ -0,0 +1,249 @@
+package fcu.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Checks the edge editing path on random operations: EdgeVector against an ArrayList, including snapshots frozen
+ * along the way; EdgeIdMap against a HashMap; Graph.removeEdge keeping ids dense and every remaining pair findable
+ * when it has parallel edges; and DynamicShortestPaths against a fresh Dijkstra after every edit, with snapshots
+ * taken before the edits left as they were. Exits with status 1 on the first failure.
+ * Usage: DynamicEditCheck [trials] [seed], defaults 50 and 1.
+ */
+public class DynamicEditCheck {
+    private DynamicEditCheck() {
+    }
+
+    public static void main(String[] args) {
+        int trials = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 1);
+        try {
+            checkEdgeVector(random);
+            checkEdgeIdMap(random);
+            for (int trial = 0; trial < trials; trial++) {
+                checkParallelEdges(random);
+                checkShortestPaths(random, trial);
+            }
+        } catch (IllegalStateException e) {
+            System.out.println("FAILED: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.printf("%d trials passed%n", trials);
+    }
+
+    private static void checkEdgeVector(Random random) {
+        EdgeVector vector = new EdgeVector();
+        List<Graph.Edge> model = new ArrayList<>();
+        List<EdgeVector> frozen = new ArrayList<>();
+        List<List<Graph.Edge>> frozenModels = new ArrayList<>();
+        for (int step = 0; step < 200000; step++) {
+            int op = random.nextInt(10);
+            if (op < 6 || model.isEmpty()) {
+                Graph.Edge edge = new Graph.Edge(model.size(), step, step + 1, 1);
+                vector.add(edge);
+                model.add(edge);
+            } else if (op < 8) {
+                int i = random.nextInt(model.size());
+                Graph.Edge edge = new Graph.Edge(i, step, step + 1, 2);
+                vector.set(i, edge);
+                model.set(i, edge);
+            } else if (op == 8 && random.nextInt(50) == 0) {
+                // Occasionally pop a long run so whole leaves and levels of the trie go away
+                for (int k = random.nextInt(Math.min(model.size(), 500)); k >= 0; k--) {
+                    vector.removeLast();
+                    model.remove(model.size() - 1);
+                }
+            }
+            if (random.nextInt(500) == 0) {
+                frozen.add(vector.freeze());
+                frozenModels.add(new ArrayList<>(model));
+            }
+        }
+        sameEdges("edge vector", vector, model);
+        for (int i = 0; i < frozen.size(); i++) {
+            sameEdges("frozen edge vector " + i, frozen.get(i), frozenModels.get(i));
+        }
+    }
+
+    private static void sameEdges(String what, EdgeVector vector, List<Graph.Edge> model) {
+        if (vector.size() != model.size()) fail(what + ": size " + vector.size() + ", expected " + model.size());
+        for (int i = 0; i < model.size(); i++) {
+            if (vector.get(i) != model.get(i)) fail(what + ": wrong edge at " + i);
+        }
+    }
+
+    private static void checkEdgeIdMap(Random random) {
+        int n = 300;
+        EdgeIdMap map = new EdgeIdMap();
+        Map<Long, Integer> model = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            long key = pair(u, v);
+            if (random.nextBoolean()) {
+                Integer previous = model.put(key, i);
+                if (map.put(u, v, i) != (previous == null ? -1 : previous)) fail("edge id map: put " + u + "-" + v);
+            } else {
+                Integer removed = model.remove(key);
+                if (map.remove(u, v) != (removed == null ? -1 : removed)) fail("edge id map: remove " + u + "-" + v);
+            }
+        }
+        if (map.size() != model.size()) fail("edge id map: size " + map.size() + ", expected " + model.size());
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                Integer id = model.get(pair(u, v));
+                if (map.get(u, v) != (id == null ? -1 : id)) fail("edge id map: get " + u + "-" + v);
+            }
+        }
+    }
+
+    private static long pair(int u, int v) {
+        return (long) Math.min(u, v) << 32 | Math.max(u, v);
+    }
+
+    // Few vertices and many additions, so most pairs carry several parallel edges when one is removed
+    private static void checkParallelEdges(Random random) {
+        int n = 3 + random.nextInt(8);
+        Graph graph = new Graph(n);
+        for (int step = 0; step < 200; step++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (u == v) continue;
+            if (random.nextInt(3) > 0) {
+                graph.addEdge(u, v, 1 + random.nextInt(9));
+            } else {
+                graph.removeEdge(u, v);
+            }
+            int[] copies = new int[n * n];
+            for (Graph.Edge edge : graph.getEdges()) {
+                copies[edge.source * n + edge.destination]++;
+                copies[edge.destination * n + edge.source]++;
+            }
+            checkIds(graph);
+            for (int x = 0; x < n; x++) {
+                for (int y = 0; y < n; y++) {
+                    if (x == y) continue;
+                    int id = graph.edgeId(x, y);
+                    if ((id >= 0) != (copies[x * n + y] > 0)) fail("parallel edges: lookup of " + x + "-" + y);
+                    if (id >= 0 && !joins(graph.getEdge(id), x, y)) {
+                        fail("parallel edges: id " + id + " for " + x + "-" + y);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void checkShortestPaths(Random random, int trial) {
+        int n = 50 + random.nextInt(300);
+        Graph graph = new Graph(n);
+        // Small weights in half the trials, so ties and alternative shortest paths are common
+        int maxWeight = trial % 2 == 0 ? 3 : 50;
+        boolean duplicates = trial % 3 == 0;
+        for (int i = 0; i < n * 2; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (u != v && (duplicates || !graph.hasEdge(u, v))) graph.addEdge(u, v, 1 + random.nextInt(maxWeight));
+        }
+        int source = random.nextInt(n);
+        Graph before = graph.snapshot();
+        List<Graph.Edge> beforeEdges = new ArrayList<>(before.getEdges());
+        DynamicShortestPaths paths = new DynamicShortestPaths(graph, source);
+        for (int edit = 0; edit < 300; edit++) {
+            int op = random.nextInt(3);
+            if (op == 0 || graph.getEdgeCount() == 0) {
+                int u = random.nextInt(n), v = random.nextInt(n);
+                if (u != v && !graph.hasEdge(u, v)) paths.addEdge(u, v, 1 + random.nextInt(5));
+            } else {
+                Graph.Edge edge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+                if (op == 1) {
+                    paths.removeEdge(edge.source, edge.destination);
+                } else {
+                    paths.setWeight(edge.destination, edge.source, 1 + random.nextInt(8));
+                }
+            }
+            checkIds(graph);
+            checkDistances(graph, paths, source);
+        }
+        if (!before.getEdges().equals(beforeEdges)) fail("dynamic shortest paths: an edit changed an earlier snapshot");
+    }
+
+    private static void checkIds(Graph graph) {
+        for (int id = 0; id < graph.getEdgeCount(); id++) {
+            Graph.Edge edge = graph.getEdge(id);
+            if (edge.id != id) fail("edge " + id + " carries id " + edge.id);
+            int found = graph.edgeId(edge.source, edge.destination);
+            if (found < 0 || !joins(graph.getEdge(found), edge.source, edge.destination)) {
+                fail("edge " + edge.source + "-" + edge.destination + " not findable");
+            }
+        }
+    }
+
+    private static boolean joins(Graph.Edge edge, int u, int v) {
+        return edge.source == u && edge.destination == v || edge.source == v && edge.destination == u;
+    }
+
+    private static void checkDistances(Graph graph, DynamicShortestPaths paths, int source) {
+        long[] expected = dijkstra(graph, source);
+        Map<Long, Integer> lightest = new HashMap<>();
+        for (Graph.Edge edge : graph.getEdges()) {
+            lightest.merge(pair(edge.source, edge.destination), edge.weight, Math::min);
+        }
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            if (paths.distance(v) != expected[v]) {
+                fail("dynamic shortest paths: distance to " + v + " is " + paths.distance(v) + ", expected " + expected[v]);
+            }
+            List<Integer> path = paths.path(v);
+            if (expected[v] < 0) {
+                if (!path.isEmpty()) fail("dynamic shortest paths: path to unreachable " + v);
+                continue;
+            }
+            if (path.get(0) != source || path.get(path.size() - 1) != v) {
+                fail("dynamic shortest paths: path ends for " + v);
+            }
+            long length = 0;
+            for (int i = 1; i < path.size(); i++) {
+                Integer weight = lightest.get(pair(path.get(i - 1), path.get(i)));
+                if (weight == null) fail("dynamic shortest paths: path to " + v + " uses a missing edge");
+                length += weight;
+            }
+            if (length != expected[v]) fail("dynamic shortest paths: path to " + v + " has length " + length);
+        }
+    }
+
+    // Plain Dijkstra over the edge list; -1 for unreachable
+    private static long[] dijkstra(Graph graph, int source) {
+        int n = graph.getVertexCount();
+        List<List<int[]>> adjacent = new ArrayList<>();
+        for (int v = 0; v < n; v++) adjacent.add(new ArrayList<>());
+        for (Graph.Edge edge : graph.getEdges()) {
+            adjacent.get(edge.source).add(new int[]{edge.destination, edge.weight});
+            adjacent.get(edge.destination).add(new int[]{edge.source, edge.weight});
+        }
+        long[] dist = new long[n];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[source] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[]{0, source});
+        while (!queue.isEmpty()) {
+            long[] top = queue.poll();
+            int u = (int) top[1];
+            if (top[0] > dist[u]) continue;
+            for (int[] arc : adjacent.get(u)) {
+                if (dist[u] + arc[1] < dist[arc[0]]) {
+                    dist[arc[0]] = dist[u] + arc[1];
+                    queue.add(new long[]{dist[arc[0]], arc[0]});
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (dist[v] == Long.MAX_VALUE) dist[v] = -1;
+        }
+        return dist;
+    }
+
+    private static void fail(String message) {
+        throw new IllegalStateException(message);
+    }
+}
@@ -0,0 +1,286 @@
+package fcu.web;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Finds where each implementation stops scaling. It sweeps graph generation, Kruskal MST, Dijkstra and the
+ * critical node search over 10^2 to 10^7 vertices at several average degrees. Every point records the median
+ * time, the peak heap and the bytes allocated, and every series gets a fitted exponent k of time ~ V^k. The
+ * adjacency-matrix Dijkstra of GraphVisualizerWithMSTAndShortestPath runs the same query while its V^2 matrix
+ * fits in a quarter of the heap.
+ * <p>
+ * A series stops growing once one run takes longer than the budget, and a degree stops once its next graph
+ * would not fit in the heap. Writes sweep.csv, sweep-fits.csv and a self-contained sweep.html.
+ * Usage: ScalabilitySweep [--max-vertices N] [--degrees 4,16,64] [--budget-seconds S] [--out DIR]
+ */
+public class ScalabilitySweep {
+    static final String GENERATE = "generate", MST = "mst", DIJKSTRA = "dijkstra",
+            CRITICAL_NODES = "critical_nodes", MATRIX_DIJKSTRA = "matrix_dijkstra";
+    static final List<String> OPERATIONS = List.of(GENERATE, MST, DIJKSTRA, CRITICAL_NODES, MATRIX_DIJKSTRA);
+
+    // Repeats fast runs until they add up to this, for a stable median
+    private static final long TARGET_NANOS = 200_000_000L;
+    private static final int MAX_REPS = 25;
+    // Graph with its edge map, compressed adjacency and one algorithm's arrays, per edge and per vertex
+    private static final long BYTES_PER_EDGE = 160, BYTES_PER_VERTEX = 64;
+
+    private final long budgetNanos;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    private boolean printing;
+
+    /** One measured (or skipped) point of a series. */
+    static final class Row {
+        final String operation;
+        final int degree, vertices;
+        final long edges;
+        final int reps;
+        final double millis;
+        final long peakHeapBytes, allocatedBytes;
+        final String status;
+
+        Row(String operation, int degree, int vertices, long edges, int reps, double millis,
+            long peakHeapBytes, long allocatedBytes, String status) {
+            this.operation = operation;
+            this.degree = degree;
+            this.vertices = vertices;
+            this.edges = edges;
+            this.reps = reps;
+            this.millis = millis;
+            this.peakHeapBytes = peakHeapBytes;
+            this.allocatedBytes = allocatedBytes;
+            this.status = status;
+        }
+
+        boolean isMeasured() {
+            return "ok".equals(status);
+        }
+
+        /** Allocation rate in MB/s over the measured runs. */
+        double allocationRate() {
+            return millis > 0 ? allocatedBytes / 1048576.0 / (millis / 1000) : 0;
+        }
+    }
+
+    ScalabilitySweep(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) heapPools.add(pool);
+        }
+        if (threads.isThreadAllocatedMemorySupported()) threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int maxVertices = 10_000_000;
+        int[] degrees = {4, 16, 64};
+        double budgetSeconds = 60;
+        Path out = Paths.get("sweep");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--max-vertices" -> maxVertices = (int) Double.parseDouble(args[++i]);
+                case "--degrees" -> degrees = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--budget-seconds" -> budgetSeconds = Double.parseDouble(args[++i]);
+                case "--out" -> out = Paths.get(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        ScalabilitySweep sweep = new ScalabilitySweep((long) (budgetSeconds * 1e9));
+        System.out.printf("max heap %d MB, %d cores%n", Runtime.getRuntime().maxMemory() >> 20,
+                Runtime.getRuntime().availableProcessors());
+        // Untimed pass so the first recorded points are not interpreted code
+        for (int degree : degrees) sweep.run(degree, 2000, new ArrayList<>(), new HashSet<>());
+        sweep.printing = true;
+
+        List<Row> rows = new ArrayList<>();
+        System.out.printf("%-16s %6s %10s %12s %5s %12s %10s %10s  %s%n",
+                "operation", "degree", "vertices", "edges", "reps", "ms", "peak MB", "alloc MB/s", "status");
+        for (int degree : degrees) {
+            Set<String> stopped = new HashSet<>();
+            for (int vertices : sizes(maxVertices)) {
+                if (!sweep.run(degree, vertices, rows, stopped)) break;
+            }
+        }
+        List<SweepReport.Fit> fits = SweepReport.fit(rows);
+        for (SweepReport.Fit fit : fits) {
+            System.out.printf("%-16s degree %-4d V^%.2f  (R^2 %.3f over %d points)%n",
+                    fit.operation, fit.degree, fit.exponent, fit.r2, fit.points);
+        }
+        Files.createDirectories(out);
+        SweepReport.writeCsv(out.resolve("sweep.csv"), rows);
+        SweepReport.writeFitsCsv(out.resolve("sweep-fits.csv"), fits);
+        SweepReport.writeHtml(out.resolve("sweep.html"), rows, fits);
+        System.out.println("wrote " + out.toAbsolutePath());
+    }
+
+    // 10^2, 10^2.5, ... up to max, rounded
+    static List<Integer> sizes(int max) {
+        List<Integer> sizes = new ArrayList<>();
+        for (int half = 4; ; half++) {
+            long v = Math.round(Math.pow(10, half / 2.0));
+            if (v > max) break;
+            sizes.add((int) v);
+        }
+        return sizes;
+    }
+
+    // Measures every operation at one size; false once the degree cannot grow any further
+    private boolean run(int degree, int vertices, List<Row> rows, Set<String> stopped) {
+        long edges = Math.max(vertices - 1L, Math.min((long) vertices * degree / 2, (long) vertices * (vertices - 1) / 2));
+        long needed = edges * BYTES_PER_EDGE + vertices * BYTES_PER_VERTEX;
+        if (stopped.contains(GENERATE) || edges > Integer.MAX_VALUE || needed > Runtime.getRuntime().maxMemory() * 4 / 5) {
+            for (String operation : OPERATIONS) {
+                add(rows, new Row(operation, degree, vertices, edges, 0, 0, 0, 0,
+                        stopped.contains(GENERATE) ? "budget" : "memory"));
+            }
+            return false;
+        }
+        try {
+            Graph[] built = new Graph[1];
+            Random random = new Random(42);
+            add(rows, measure(GENERATE, degree, vertices, edges, stopped, () -> {
+                built[0] = generate(vertices, edges, random);
+                built[0].compressedAdjacency();
+            }));
+            Graph graph = built[0];
+            built[0] = null;
+            int target = farthest(graph, 0);
+            add(rows, measure(MST, degree, vertices, edges, stopped, graph::kruskalMST));
+            add(rows, measure(DIJKSTRA, degree, vertices, edges, stopped, () -> graph.dijkstra(0, target)));
+            add(rows, measure(CRITICAL_NODES, degree, vertices, edges, stopped, graph::findCriticalNodes));
+            if ((long) vertices * vertices * 4 > Runtime.getRuntime().maxMemory() / 4) {
+                add(rows, new Row(MATRIX_DIJKSTRA, degree, vertices, edges, 0, 0, 0, 0, "memory"));
+            } else if (stopped.contains(MATRIX_DIJKSTRA)) {
+                add(rows, new Row(MATRIX_DIJKSTRA, degree, vertices, edges, 0, 0, 0, 0, "budget"));
+            } else {
+                int[][] matrix = matrix(graph);
+                add(rows, measure(MATRIX_DIJKSTRA, degree, vertices, edges, stopped, () -> matrixDijkstra(matrix, 0, target)));
+            }
+            return true;
+        } catch (OutOfMemoryError e) {
+            add(rows, new Row("-", degree, vertices, edges, 0, 0, 0, 0, "out of memory"));
+            return false;
+        }
+    }
+
+    private Row measure(String operation, int degree, int vertices, long edges, Set<String> stopped, Runnable body) {
+        if (stopped.contains(operation)) return new Row(operation, degree, vertices, edges, 0, 0, 0, 0, "budget");
+        System.gc();
+        for (MemoryPoolMXBean pool : heapPools) pool.resetPeakUsage();
+        Map<Long, Long> allocatedBefore = allocatedByThread();
+        List<Long> times = new ArrayList<>();
+        long total = 0;
+        do {
+            long start = System.nanoTime();
+            body.run();
+            long elapsed = System.nanoTime() - start;
+            times.add(elapsed);
+            total += elapsed;
+        } while (total < TARGET_NANOS && times.size() < MAX_REPS && total < budgetNanos);
+        long allocated = 0;
+        for (Map.Entry<Long, Long> entry : allocatedByThread().entrySet()) {
+            allocated += entry.getValue() - allocatedBefore.getOrDefault(entry.getKey(), 0L);
+        }
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools) peak += pool.getPeakUsage().getUsed();
+        Collections.sort(times);
+        long median = times.get(times.size() / 2);
+        if (median > budgetNanos) stopped.add(operation);
+        return new Row(operation, degree, vertices, edges, times.size(), median / 1e6, peak,
+                allocated / times.size(), "ok");
+    }
+
+    // Allocation by every live thread, so pool workers of the parallel algorithms count too
+    private Map<Long, Long> allocatedByThread() {
+        Map<Long, Long> allocated = new HashMap<>();
+        if (!threads.isThreadAllocatedMemoryEnabled()) return allocated;
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) allocated.put(ids[i], bytes[i]);
+        }
+        return allocated;
+    }
+
+    private void add(List<Row> rows, Row row) {
+        rows.add(row);
+        if (printing) System.out.printf("%-16s %6d %10d %12d %5d %12.3f %10.1f %10.1f  %s%n", row.operation, row.degree,
+                row.vertices, row.edges, row.reps, row.millis, row.peakHeapBytes / 1048576.0, row.allocationRate(),
+                row.status);
+    }
+
+    // Random spanning tree plus random extra edges, as GraphGUI generates them
+    static Graph generate(int vertices, long edges, Random random) {
+        Graph graph = new Graph(vertices);
+        for (int i = 1; i < vertices; i++) {
+            graph.addEdge(i, random.nextInt(i), random.nextInt(99) + 1);
+        }
+        while (graph.getEdgeCount() < edges) {
+            int u = random.nextInt(vertices), v = random.nextInt(vertices);
+            if (u != v && !graph.hasEdge(u, v)) graph.addEdge(u, v, random.nextInt(99) + 1);
+        }
+        return graph;
+    }
+
+    // Both Dijkstras stop once the target is settled; the vertex settled last makes them build the whole tree
+    private static int farthest(Graph graph, int source) {
+        int n = graph.getVertexCount();
+        int[] all = new int[n];
+        for (int v = 0; v < n; v++) all[v] = v;
+        DijkstraSearch search = new DijkstraSearch(graph.compressedAdjacency());
+        search.reset();
+        search.run(source, all, n);
+        int farthest = source;
+        for (int v = 0; v < n; v++) {
+            if (search.reached(v) && search.distance(v) > search.distance(farthest)) farthest = v;
+        }
+        return farthest;
+    }
+
+    private static int[][] matrix(Graph graph) {
+        int[][] matrix = new int[graph.getVertexCount()][graph.getVertexCount()];
+        for (Graph.Edge edge : graph.getEdges()) {
+            matrix[edge.source][edge.destination] = edge.weight;
+            matrix[edge.destination][edge.source] = edge.weight;
+        }
+        return matrix;
+    }
+
+    // GraphVisualizerWithMSTAndShortestPath.computeShortestPath (private to that frame), stopping at the target
+    // like Graph.dijkstra
+    static int[] matrixDijkstra(int[][] graph, int start, int end) {
+        int n = graph.length;
+        int[] dist = new int[n];
+        int[] prev = new int[n];
+        boolean[] visited = new boolean[n];
+        PriorityQueue<int[]> pq = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, -1);
+        dist[start] = 0;
+        pq.offer(new int[]{start, 0});
+        while (!pq.isEmpty()) {
+            int u = pq.poll()[0];
+            if (visited[u]) continue;
+            visited[u] = true;
+            if (u == end) break;
+            for (int v = 0; v < n; v++) {
+                if (graph[u][v] != 0 && !visited[v]) {
+                    int newDist = dist[u] + graph[u][v];
+                    if (newDist < dist[v]) {
+                        dist[v] = newDist;
+                        prev[v] = u;
+                        pq.offer(new int[]{v, newDist});
+                    }
+                }
+            }
+        }
+        return prev;
+    }
+}
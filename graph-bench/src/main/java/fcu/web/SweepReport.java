@@ -0,0 +1,248 @@
+package fcu.web;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Complexity fits and the CSV and HTML output of ScalabilitySweep. The HTML page draws its log-log charts as
+ * inline SVG, so it opens offline with nothing else next to it.
+ */
+final class SweepReport {
+    // Shorter runs are mostly timer and JIT noise and would flatten the fitted slope
+    private static final double FIT_FLOOR_MILLIS = 0.1;
+    private static final String[] COLORS = {"#1f77b4", "#d62728", "#2ca02c", "#9467bd", "#ff7f0e", "#8c564b"};
+    private static final int WIDTH = 640, HEIGHT = 360, LEFT = 70, RIGHT = 140, TOP = 30, BOTTOM = 40;
+
+    private SweepReport() {
+    }
+
+    /** Least squares slope of log(time) over log(V) for one operation at one degree. */
+    static final class Fit {
+        final String operation;
+        final int degree, points;
+        final double exponent, r2;
+
+        Fit(String operation, int degree, int points, double exponent, double r2) {
+            this.operation = operation;
+            this.degree = degree;
+            this.points = points;
+            this.exponent = exponent;
+            this.r2 = r2;
+        }
+    }
+
+    private static final class Series {
+        final String label, color;
+        final boolean dashed;
+        final List<double[]> points = new ArrayList<>();
+
+        Series(String label, String color, boolean dashed) {
+            this.label = label;
+            this.color = color;
+            this.dashed = dashed;
+        }
+    }
+
+    static List<Fit> fit(List<ScalabilitySweep.Row> rows) {
+        List<Fit> fits = new ArrayList<>();
+        for (String operation : ScalabilitySweep.OPERATIONS) {
+            for (int degree : degrees(rows)) {
+                List<double[]> points = new ArrayList<>();
+                for (ScalabilitySweep.Row row : rows) {
+                    if (row.isMeasured() && row.operation.equals(operation) && row.degree == degree
+                            && row.millis >= FIT_FLOOR_MILLIS) {
+                        points.add(new double[]{Math.log(row.vertices), Math.log(row.millis)});
+                    }
+                }
+                if (points.size() < 3) continue;
+                double mx = 0, my = 0;
+                for (double[] p : points) {
+                    mx += p[0];
+                    my += p[1];
+                }
+                mx /= points.size();
+                my /= points.size();
+                double sxx = 0, sxy = 0, syy = 0;
+                for (double[] p : points) {
+                    sxx += (p[0] - mx) * (p[0] - mx);
+                    sxy += (p[0] - mx) * (p[1] - my);
+                    syy += (p[1] - my) * (p[1] - my);
+                }
+                double slope = sxy / sxx;
+                double r2 = syy == 0 ? 1 : sxy * sxy / (sxx * syy);
+                fits.add(new Fit(operation, degree, points.size(), slope, r2));
+            }
+        }
+        return fits;
+    }
+
+    static void writeCsv(Path file, List<ScalabilitySweep.Row> rows) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("operation,degree,vertices,edges,reps,median_ms,peak_heap_bytes,allocated_bytes,alloc_mb_per_s,status");
+            for (ScalabilitySweep.Row row : rows) {
+                out.printf(Locale.ROOT, "%s,%d,%d,%d,%d,%.4f,%d,%d,%.1f,%s%n", row.operation, row.degree, row.vertices,
+                        row.edges, row.reps, row.millis, row.peakHeapBytes, row.allocatedBytes, row.allocationRate(),
+                        row.status);
+            }
+        }
+    }
+
+    static void writeFitsCsv(Path file, List<Fit> fits) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("operation,degree,points,exponent,r2");
+            for (Fit fit : fits) {
+                out.printf(Locale.ROOT, "%s,%d,%d,%.3f,%.4f%n", fit.operation, fit.degree, fit.points, fit.exponent, fit.r2);
+            }
+        }
+    }
+
+    static void writeHtml(Path file, List<ScalabilitySweep.Row> rows, List<Fit> fits) throws IOException {
+        List<Integer> degrees = degrees(rows);
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Scalability sweep</title>\n")
+                .append("<style>body{font-family:sans-serif;margin:24px;color:#222}")
+                .append("table{border-collapse:collapse;font-size:13px}td,th{border:1px solid #ccc;padding:3px 8px;text-align:right}")
+                .append("th{background:#f3f3f3}svg{margin:8px 16px 16px 0}text{font-size:11px}</style></head><body>\n")
+                .append("<h1>Scalability sweep</h1>\n<p>Median time per run against vertex count, log-log; the degree is ")
+                .append("the average vertex degree. k is the fitted exponent of time ~ V<sup>k</sup> over runs of at least ")
+                .append(FIT_FLOOR_MILLIS).append(" ms.</p>\n");
+
+        for (String operation : ScalabilitySweep.OPERATIONS) {
+            List<Series> series = new ArrayList<>();
+            for (int i = 0; i < degrees.size(); i++) {
+                series.add(series(rows, fits, operation, degrees.get(i), COLORS[i % COLORS.length], false, false));
+            }
+            chart(html, operation, "ms", series);
+        }
+        List<Series> paths = new ArrayList<>();
+        for (int i = 0; i < degrees.size(); i++) {
+            String color = COLORS[i % COLORS.length];
+            paths.add(series(rows, fits, ScalabilitySweep.DIJKSTRA, degrees.get(i), color, false, false));
+            paths.add(series(rows, fits, ScalabilitySweep.MATRIX_DIJKSTRA, degrees.get(i), color, true, false));
+        }
+        chart(html, "dijkstra (solid) vs matrix_dijkstra (dashed)", "ms", paths);
+        List<Series> heap = new ArrayList<>();
+        for (int i = 0; i < degrees.size(); i++) {
+            heap.add(series(rows, fits, ScalabilitySweep.GENERATE, degrees.get(i), COLORS[i % COLORS.length], false, true));
+        }
+        chart(html, "peak heap while generating", "MB", heap);
+
+        html.append("<h2>Fitted exponents</h2>\n<table><tr><th>operation</th><th>degree</th><th>points</th>")
+                .append("<th>k</th><th>R<sup>2</sup></th></tr>\n");
+        for (Fit fit : fits) {
+            html.append(String.format(Locale.ROOT, "<tr><td>%s</td><td>%d</td><td>%d</td><td>%.2f</td><td>%.3f</td></tr>%n",
+                    fit.operation, fit.degree, fit.points, fit.exponent, fit.r2));
+        }
+        html.append("</table>\n<h2>Runs</h2>\n<table><tr><th>operation</th><th>degree</th><th>vertices</th>")
+                .append("<th>edges</th><th>reps</th><th>median ms</th><th>peak heap MB</th><th>alloc MB/s</th>")
+                .append("<th>status</th></tr>\n");
+        for (ScalabilitySweep.Row row : rows) {
+            html.append(String.format(Locale.ROOT,
+                    "<tr><td>%s</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td><td>%.3f</td><td>%.1f</td><td>%.1f</td><td>%s</td></tr>%n",
+                    row.operation, row.degree, row.vertices, row.edges, row.reps, row.millis,
+                    row.peakHeapBytes / 1048576.0, row.allocationRate(), row.status));
+        }
+        html.append("</table>\n</body></html>\n");
+        Files.writeString(file, html, StandardCharsets.UTF_8);
+    }
+
+    private static List<Integer> degrees(List<ScalabilitySweep.Row> rows) {
+        TreeSet<Integer> degrees = new TreeSet<>();
+        for (ScalabilitySweep.Row row : rows) degrees.add(row.degree);
+        return new ArrayList<>(degrees);
+    }
+
+    private static Series series(List<ScalabilitySweep.Row> rows, List<Fit> fits, String operation, int degree,
+                                 String color, boolean dashed, boolean heap) {
+        String label = (dashed ? "matrix " : "") + "degree " + degree;
+        if (!heap) {
+            for (Fit fit : fits) {
+                if (fit.operation.equals(operation) && fit.degree == degree) {
+                    label += String.format(Locale.ROOT, ", k=%.2f", fit.exponent);
+                }
+            }
+        }
+        Series series = new Series(label, color, dashed);
+        for (ScalabilitySweep.Row row : rows) {
+            if (!row.isMeasured() || !row.operation.equals(operation) || row.degree != degree) continue;
+            double y = heap ? row.peakHeapBytes / 1048576.0 : row.millis;
+            if (y > 0) series.points.add(new double[]{row.vertices, y});
+        }
+        return series;
+    }
+
+    // Log-log axes snapped to whole decades around the data
+    private static void chart(StringBuilder html, String title, String unit, List<Series> series) {
+        double minX = Double.MAX_VALUE, maxX = 0, minY = Double.MAX_VALUE, maxY = 0;
+        for (Series s : series) {
+            for (double[] p : s.points) {
+                minX = Math.min(minX, p[0]);
+                maxX = Math.max(maxX, p[0]);
+                minY = Math.min(minY, p[1]);
+                maxY = Math.max(maxY, p[1]);
+            }
+        }
+        if (maxX == 0) return;
+        int x0 = (int) Math.floor(Math.log10(minX)), x1 = Math.max(x0 + 1, (int) Math.ceil(Math.log10(maxX)));
+        int y0 = (int) Math.floor(Math.log10(minY)), y1 = Math.max(y0 + 1, (int) Math.ceil(Math.log10(maxY)));
+        int plotWidth = WIDTH - LEFT - RIGHT, plotHeight = HEIGHT - TOP - BOTTOM;
+
+        html.append(String.format(Locale.ROOT, "<svg width=\"%d\" height=\"%d\" xmlns=\"http://www.w3.org/2000/svg\">%n", WIDTH, HEIGHT));
+        html.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"18\" style=\"font-size:14px;font-weight:bold\">%s</text>%n", LEFT, title));
+        for (int d = x0; d <= x1; d++) {
+            double x = LEFT + (double) (d - x0) / (x1 - x0) * plotWidth;
+            html.append(String.format(Locale.ROOT, "<line x1=\"%.1f\" y1=\"%d\" x2=\"%.1f\" y2=\"%d\" stroke=\"#ddd\"/>"
+                            + "<text x=\"%.1f\" y=\"%d\" text-anchor=\"middle\">%s</text>%n",
+                    x, TOP, x, TOP + plotHeight, x, TOP + plotHeight + 15, decade(d)));
+        }
+        for (int d = y0; d <= y1; d++) {
+            double y = TOP + plotHeight - (double) (d - y0) / (y1 - y0) * plotHeight;
+            html.append(String.format(Locale.ROOT, "<line x1=\"%d\" y1=\"%.1f\" x2=\"%d\" y2=\"%.1f\" stroke=\"#ddd\"/>"
+                            + "<text x=\"%d\" y=\"%.1f\" text-anchor=\"end\">%s</text>%n",
+                    LEFT, y, LEFT + plotWidth, y, LEFT - 5, y + 4, decade(d)));
+        }
+        html.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\" text-anchor=\"middle\">vertices</text>"
+                        + "<text x=\"12\" y=\"%d\" transform=\"rotate(-90 12 %d)\" text-anchor=\"middle\">%s</text>%n",
+                LEFT + plotWidth / 2, HEIGHT - 5, TOP + plotHeight / 2, TOP + plotHeight / 2, unit));
+        int legend = 0;
+        for (Series s : series) {
+            if (s.points.isEmpty()) continue;
+            StringBuilder points = new StringBuilder();
+            for (double[] p : s.points) {
+                double x = LEFT + (Math.log10(p[0]) - x0) / (x1 - x0) * plotWidth;
+                double y = TOP + plotHeight - (Math.log10(p[1]) - y0) / (y1 - y0) * plotHeight;
+                points.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, y));
+                html.append(String.format(Locale.ROOT, "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"2.5\" fill=\"%s\"/>", x, y, s.color));
+            }
+            html.append(String.format(Locale.ROOT, "<polyline points=\"%s\" fill=\"none\" stroke=\"%s\" stroke-width=\"1.5\"%s/>%n",
+                    points.toString().trim(), s.color, s.dashed ? " stroke-dasharray=\"5,4\"" : ""));
+            int ly = TOP + 10 + legend++ * 16;
+            html.append(String.format(Locale.ROOT, "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"%s\" stroke-width=\"2\"%s/>"
+                            + "<text x=\"%d\" y=\"%d\">%s</text>%n",
+                    LEFT + plotWidth + 10, ly, LEFT + plotWidth + 28, ly, s.color,
+                    s.dashed ? " stroke-dasharray=\"5,4\"" : "", LEFT + plotWidth + 32, ly + 4, s.label));
+        }
+        html.append("</svg>\n");
+    }
+
+    private static String decade(int d) {
+        switch (d) {
+            case -3: return "0.001";
+            case -2: return "0.01";
+            case -1: return "0.1";
+            case 0: return "1";
+            case 1: return "10";
+            case 2: return "100";
+            case 3: return "1k";
+            case 4: return "10k";
+            case 5: return "100k";
+            case 6: return "1M";
+            case 7: return "10M";
+            default: return "1e" + d;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package fcu.web;
+
+import java.util.Random;
+
+/**
+ * Times Dijkstra and the critical node search on the same graph under each vertex order.
+ * The test graph is a grid with a few long edges and shuffled ids, like an imported road network.
+ * Usage: VertexOrderBenchmark [side] [queries], defaults 1000 and 20.
+ */
+public class VertexOrderBenchmark {
+    private VertexOrderBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Graph graph = shuffledGrid(side, new Random(42));
+        System.out.printf("%d vertices, %d edges, %d shortest path queries%n",
+                graph.getVertexCount(), graph.getEdgeCount(), queries);
+        System.out.printf("%-8s %12s %12s %12s %12s%n", "order", "reorder ms", "dijkstra ms", "critical ms", "adjacency MB");
+
+        double naturalDijkstra = 0, naturalCritical = 0;
+        VertexOrder.Strategy[] strategies = {null, VertexOrder.Strategy.RCM, VertexOrder.Strategy.BFS, VertexOrder.Strategy.DEGREE};
+        CompressedAdjacency natural = graph.compressedAdjacency();
+        for (VertexOrder.Strategy strategy : strategies) {
+            // Only computing the order and relabeling the adjacency count as reordering
+            long start = System.nanoTime();
+            CompressedAdjacency reordered = strategy == null
+                    ? natural : VertexOrder.compute(strategy, natural).relabel(natural);
+            double reorder = millis(start);
+
+            graph.setVertexOrder(strategy);
+            graph.findCriticalNodes(); // builds the graph's own reordered adjacency and warms up
+            Random random = new Random(7);
+            graph.dijkstra(0, graph.getVertexCount() - 1);
+            start = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                graph.dijkstra(random.nextInt(graph.getVertexCount()), random.nextInt(graph.getVertexCount()));
+            }
+            double dijkstra = millis(start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < 3; i++) graph.findCriticalNodes();
+            double critical = millis(start) / 3;
+
+            if (strategy == null) {
+                naturalDijkstra = dijkstra;
+                naturalCritical = critical;
+            }
+            System.out.printf("%-8s %12.1f %12.1f %12.1f %12.1f   speedup %.2fx / %.2fx%n",
+                    strategy == null ? "natural" : strategy.name(), strategy == null ? 0 : reorder, dijkstra, critical,
+                    reordered.sizeInBytes() / 1048576.0, naturalDijkstra / dijkstra, naturalCritical / critical);
+        }
+    }
+
+    // side x side grid plus one random shortcut per 50 vertices, with vertex ids shuffled
+    private static Graph shuffledGrid(int side, Random random) {
+        int n = side * side;
+        int[] id = new int[n];
+        for (int i = 0; i < n; i++) id[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = id[i];
+            id[i] = id[j];
+            id[j] = t;
+        }
+        Graph graph = new Graph(n);
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                if (c + 1 < side) graph.addEdge(id[v], id[v + 1], random.nextInt(99) + 1);
+                if (r + 1 < side) graph.addEdge(id[v], id[v + side], random.nextInt(99) + 1);
+            }
+        }
+        for (int i = 0; i < n / 50; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (u != v && !graph.hasEdge(id[u], id[v])) graph.addEdge(id[u], id[v], random.nextInt(99) + 1);
+        }
+        return graph;
+    }
+
+    private static double millis(long start) {
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
@@ -0,0 +1,71 @@
+package fcu.web;
+
+/**
+ * Compressed sparse row adjacency over an undirected edge list.
+ * Neighbors of v are neighbor(i) for i in [start(v), end(v)); edgeId(i) is the id of the edge that produced the slot.
+ */
+public class AdjacencyIndex {
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final int[] edgeIds;
+
+    private AdjacencyIndex(int vertexCount, int[] offsets, int[] neighbors, int[] edgeIds) {
+        this.vertexCount = vertexCount;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.edgeIds = edgeIds;
+    }
+
+    public static AdjacencyIndex build(int vertexCount, int[] from, int[] to, int edgeCount) {
+        int[] offsets = new int[vertexCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[from[e] + 1]++;
+            offsets[to[e] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] fill = new int[vertexCount];
+        int[] neighbors = new int[offsets[vertexCount]];
+        int[] edgeIds = new int[offsets[vertexCount]];
+        for (int e = 0; e < edgeCount; e++) {
+            int u = from[e], v = to[e];
+            int i = offsets[u] + fill[u]++;
+            neighbors[i] = v;
+            edgeIds[i] = e;
+            int j = offsets[v] + fill[v]++;
+            neighbors[j] = u;
+            edgeIds[j] = e;
+        }
+        return new AdjacencyIndex(vertexCount, offsets, neighbors, edgeIds);
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int edgeCount() {
+        return offsets[vertexCount] / 2;
+    }
+
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    public int start(int v) {
+        return offsets[v];
+    }
+
+    public int end(int v) {
+        return offsets[v + 1];
+    }
+
+    public int neighbor(int slot) {
+        return neighbors[slot];
+    }
+
+    public int edgeId(int slot) {
+        return edgeIds[slot];
+    }
+}
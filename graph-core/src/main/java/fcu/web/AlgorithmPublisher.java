@@ -0,0 +1,55 @@
+package fcu.web;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
+
+/**
+ * Cold publisher over one algorithm run: every subscriber starts its own run on a new daemon thread and
+ * receives the items the algorithm emits, in order, then onComplete. Delivery goes through a
+ * SubmissionPublisher, so a slow subscriber blocks the algorithm once its buffer is full instead of letting
+ * items pile up. Cancelling stops the run at its next emitted item.
+ */
+final class AlgorithmPublisher<T> implements Flow.Publisher<T> {
+    // Large enough that the algorithm and the subscriber hand over thousands of items per context switch
+    private static final int BUFFER = 1 << 13;
+    // SubmissionPublisher's own default: the common pool, or a thread per task when it has no parallelism
+    private static final Executor DELIVERY = ForkJoinPool.getCommonPoolParallelism() > 1
+            ? ForkJoinPool.commonPool()
+            : task -> {
+                Thread thread = new Thread(task, "stream-delivery");
+                thread.setDaemon(true);
+                thread.start();
+            };
+    private final String name;
+    private final Consumer<Consumer<T>> algorithm;
+
+    AlgorithmPublisher(String name, Consumer<Consumer<T>> algorithm) {
+        this.name = name;
+        this.algorithm = algorithm;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        SubmissionPublisher<T> publisher = new SubmissionPublisher<>(DELIVERY, BUFFER);
+        publisher.subscribe(subscriber);
+        Thread thread = new Thread(() -> {
+            try {
+                algorithm.accept(item -> {
+                    if (!publisher.hasSubscribers()) throw new CancellationException();
+                    publisher.submit(item);
+                });
+                publisher.close();
+            } catch (CancellationException e) {
+                publisher.close();
+            } catch (RuntimeException | Error e) {
+                publisher.closeExceptionally(e);
+            }
+        }, "stream-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
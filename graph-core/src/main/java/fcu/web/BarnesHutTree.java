@@ -0,0 +1,169 @@
+package fcu.web;
+
+import java.util.Arrays;
+
+/**
+ * Quadtree of point masses for approximating all-pairs repulsion in O(n log n).
+ * Built once per layout iteration and then only read, so force evaluation can run on many threads.
+ */
+class BarnesHutTree {
+    private static final int MAX_DEPTH = 40;
+
+    private int nodeCount;
+    private int[] firstChild = new int[64];
+    private int[] body = new int[64];
+    private float[] mass = new float[64];
+    private float[] comX = new float[64], comY = new float[64];
+    private float[] centerX = new float[64], centerY = new float[64], halfSize = new float[64];
+
+    private float[] x, y;
+
+    void build(float[] x, float[] y, int count) {
+        this.x = x;
+        this.y = y;
+        float x0 = Float.MAX_VALUE, y0 = Float.MAX_VALUE, x1 = -Float.MAX_VALUE, y1 = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            x0 = Math.min(x0, x[i]);
+            y0 = Math.min(y0, y[i]);
+            x1 = Math.max(x1, x[i]);
+            y1 = Math.max(y1, y[i]);
+        }
+        nodeCount = 0;
+        newNode((x0 + x1) / 2, (y0 + y1) / 2, Math.max(Math.max(x1 - x0, y1 - y0) / 2, 1e-3f) * 1.001f);
+        for (int i = 0; i < count; i++) {
+            insert(i);
+        }
+    }
+
+    private int newNode(float cx, float cy, float half) {
+        if (nodeCount == firstChild.length) {
+            int capacity = nodeCount * 2;
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            body = Arrays.copyOf(body, capacity);
+            mass = Arrays.copyOf(mass, capacity);
+            comX = Arrays.copyOf(comX, capacity);
+            comY = Arrays.copyOf(comY, capacity);
+            centerX = Arrays.copyOf(centerX, capacity);
+            centerY = Arrays.copyOf(centerY, capacity);
+            halfSize = Arrays.copyOf(halfSize, capacity);
+        }
+        int node = nodeCount++;
+        firstChild[node] = -1;
+        body[node] = -1;
+        mass[node] = 0;
+        comX[node] = 0;
+        comY[node] = 0;
+        centerX[node] = cx;
+        centerY[node] = cy;
+        halfSize[node] = half;
+        return node;
+    }
+
+    private int quadrant(int node, float px, float py) {
+        return (px >= centerX[node] ? 1 : 0) + (py >= centerY[node] ? 2 : 0);
+    }
+
+    private void insert(int b) {
+        float px = x[b], py = y[b];
+        int node = 0;
+        int depth = 0;
+        while (true) {
+            if (firstChild[node] < 0) {
+                if (mass[node] == 0) {
+                    body[node] = b;
+                    mass[node] = 1;
+                    comX[node] = px;
+                    comY[node] = py;
+                    return;
+                }
+                int other = body[node];
+                if (depth >= MAX_DEPTH || (x[other] == px && y[other] == py)) {
+                    // Coincident bodies share one leaf
+                    addMass(node, px, py);
+                    return;
+                }
+                split(node);
+            }
+            addMass(node, px, py);
+            node = firstChild[node] + quadrant(node, px, py);
+            depth++;
+        }
+    }
+
+    private void split(int node) {
+        float half = halfSize[node] / 2;
+        float cx = centerX[node], cy = centerY[node];
+        int first = newNode(cx - half, cy - half, half);
+        newNode(cx + half, cy - half, half);
+        newNode(cx - half, cy + half, half);
+        newNode(cx + half, cy + half, half);
+        firstChild[node] = first;
+
+        // Push the resident body (with any coincident mass) down into its quadrant
+        int other = body[node];
+        int child = first + quadrant(node, x[other], y[other]);
+        body[child] = other;
+        mass[child] = mass[node];
+        comX[child] = comX[node];
+        comY[child] = comY[node];
+        body[node] = -1;
+    }
+
+    private void addMass(int node, float px, float py) {
+        float m = mass[node];
+        comX[node] = (comX[node] * m + px) / (m + 1);
+        comY[node] = (comY[node] * m + py) / (m + 1);
+        mass[node] = m + 1;
+    }
+
+    /**
+     * Adds the repulsive force on body v (strength k^2 / d per unit mass) into force[0..1].
+     * Cells smaller than theta times their distance are treated as a single mass.
+     */
+    void repulsion(int v, float theta, float k2, int[] stack, float[] force) {
+        float px = x[v], py = y[v];
+        float fx = 0, fy = 0;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            float m = mass[node];
+            if (m == 0) continue;
+            boolean leaf = firstChild[node] < 0;
+            if (leaf && body[node] == v) {
+                m -= 1;
+                if (m == 0) continue;
+            }
+            float dx = px - comX[node];
+            float dy = py - comY[node];
+            float d2 = dx * dx + dy * dy;
+            float size = halfSize[node] * 2;
+            if (leaf || size * size < theta * theta * d2) {
+                if (d2 < 1e-6f) {
+                    // Coincident: push apart in a direction derived from the id
+                    double angle = (v * 0.618033988749895) % 1.0 * 2 * Math.PI;
+                    dx = (float) Math.cos(angle) * 1e-2f;
+                    dy = (float) Math.sin(angle) * 1e-2f;
+                    d2 = 1e-4f;
+                }
+                // (dx / d) * (k2 * m / d)
+                float f = k2 * m / d2;
+                fx += dx * f;
+                fy += dy * f;
+            } else {
+                int first = firstChild[node];
+                stack[top++] = first;
+                stack[top++] = first + 1;
+                stack[top++] = first + 2;
+                stack[top++] = first + 3;
+            }
+        }
+        force[0] += fx;
+        force[1] += fy;
+    }
+
+    // Upper bound on traversal stack depth for repulsion()
+    int stackSize() {
+        return 3 * MAX_DEPTH + 8;
+    }
+}
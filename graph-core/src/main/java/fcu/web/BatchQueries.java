@@ -0,0 +1,148 @@
+package fcu.web;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Answers many (source, target) shortest path queries at once. Queries are grouped by source and each group
+ * is one Dijkstra run that stops once all of its targets are settled, so a thousand pairs from ten sources cost
+ * ten searches. Groups run concurrently over the immutable adjacency, on virtual threads where the runtime has
+ * them (Java 21+) and on a pool of one platform thread per core otherwise. Results are handed to the sink in
+ * input order as soon as every earlier query is done.
+ */
+public class BatchQueries {
+    private final CompressedAdjacency adjacency;
+    private final ConcurrentLinkedQueue<DijkstraSearch> searches = new ConcurrentLinkedQueue<>();
+
+    public BatchQueries(CompressedAdjacency adjacency) {
+        this.adjacency = adjacency;
+    }
+
+    /** One answered query; cost is -1 and the path empty when target cannot be reached. */
+    public static final class Result {
+        public final int index;
+        public final int source, target;
+        public final long cost;
+        private final int[] path;
+
+        Result(int index, int source, int target, long cost, int[] path) {
+            this.index = index;
+            this.source = source;
+            this.target = target;
+            this.cost = cost;
+            this.path = path;
+        }
+
+        public int[] path() {
+            return path.clone();
+        }
+
+        public boolean isReachable() {
+            return cost >= 0;
+        }
+    }
+
+    /**
+     * Runs sources[i] -> targets[i] for every i and blocks until all are answered. The sink is called from the
+     * worker threads, one call at a time, in increasing i.
+     */
+    public void run(int[] sources, int[] targets, Consumer<Result> sink) throws InterruptedException {
+        int count = sources.length;
+        if (targets.length != count) throw new IllegalArgumentException("sources and targets differ in length");
+        int n = adjacency.vertexCount();
+        for (int i = 0; i < count; i++) {
+            if (sources[i] < 0 || sources[i] >= n || targets[i] < 0 || targets[i] >= n) {
+                throw new IllegalArgumentException("Query " + i + " has a vertex outside 0.." + (n - 1));
+            }
+        }
+        Metrics.Phase phase = Metrics.phase("batch_queries");
+        GraphEvents.Span event = GraphEvents.algorithm("batch_queries", "run", n, adjacency.edgeCount());
+        long start = phase.start();
+
+        // Query indices sorted by source, then input order; each run of equal sources is a group
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) keys[i] = (long) sources[i] << 32 | i;
+        Arrays.sort(keys);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) order[i] = (int) keys[i];
+
+        Emitter emitter = new Emitter(count, sink);
+        int groups = 0;
+        ExecutorService executor = TaskExecutors.perTask("batch-query", Runtime.getRuntime().availableProcessors());
+        try {
+            Future<?>[] futures = new Future<?>[count];
+            for (int from = 0; from < count; ) {
+                int to = from;
+                while (to < count && sources[order[to]] == sources[order[from]]) to++;
+                int groupFrom = from, groupTo = to;
+                futures[groups++] = executor.submit(() -> answer(sources, targets, order, groupFrom, groupTo, emitter));
+                from = to;
+            }
+            for (int g = 0; g < groups; g++) {
+                futures[g].get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+        phase.stop(start);
+        event.commit();
+        Metrics.counter("batch_queries.queries").add(count);
+        Metrics.counter("batch_queries.searches").add(groups);
+    }
+
+    private void answer(int[] sources, int[] targets, int[] order, int from, int to, Emitter emitter) {
+        DijkstraSearch search = searches.poll();
+        if (search == null) search = new DijkstraSearch(adjacency);
+        int[] groupTargets = new int[to - from];
+        for (int i = from; i < to; i++) groupTargets[i - from] = targets[order[i]];
+        search.reset();
+        search.run(sources[order[from]], groupTargets, groupTargets.length);
+        Result[] results = new Result[to - from];
+        for (int i = from; i < to; i++) {
+            int q = order[i];
+            int target = targets[q];
+            boolean reached = search.reached(target);
+            results[i - from] = new Result(q, sources[q], target, reached ? search.distance(target) : -1,
+                    search.path(target));
+        }
+        searches.add(search);
+        emitter.complete(results);
+    }
+
+    // Reorder buffer: completed results wait here until every earlier index has been emitted.
+    // A lock rather than synchronized, which would pin a virtual thread to its carrier while the sink runs.
+    private static final class Emitter {
+        private final Result[] pending;
+        private final Consumer<Result> sink;
+        private final ReentrantLock lock = new ReentrantLock();
+        private int next;
+
+        Emitter(int count, Consumer<Result> sink) {
+            this.pending = new Result[count];
+            this.sink = sink;
+        }
+
+        void complete(Result[] results) {
+            lock.lock();
+            try {
+                for (Result result : results) pending[result.index] = result;
+                while (next < pending.length && pending[next] != null) {
+                    sink.accept(pending[next]);
+                    pending[next++] = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
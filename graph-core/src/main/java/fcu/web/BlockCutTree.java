@@ -0,0 +1,265 @@
+package fcu.web;
+
+import java.util.Arrays;
+
+/**
+ * Block-cut tree of an undirected graph: one node per biconnected block and one per articulation point, with an
+ * edge between a cut vertex and every block that contains it. Removing v separates s from t exactly when v is a
+ * cut vertex whose node lies on the tree path between the nodes of s and t.
+ * LCA uses an Euler tour with a sparse table of minimum depth positions, so separates() is O(1) after O(N log N)
+ * preprocessing, N being the number of tree nodes (at most twice the vertex count).
+ */
+public class BlockCutTree {
+    private final int blockCount;
+    private final int[] cutNode;    // tree node of each vertex that is an articulation point, else -1
+    private final int[] cutVertex;  // vertex of tree node blockCount + i
+    private final int[] blockOf;    // a block containing each vertex
+    private final int[] treeParent;
+    private final int[] depth;
+    private final int[] treeRoot;
+    private final int[] first;      // first position of each node in the Euler tour
+    private final int[] tour;
+    private final int[][] sparse;   // sparse[k][i]: tour position of the shallowest node in tour[i, i + 2^k)
+
+    private BlockCutTree(int blockCount, int[] cutNode, int[] cutVertex, int[] blockOf, int[] treeParent,
+                         int[] depth, int[] treeRoot, int[] first, int[] tour, int[][] sparse) {
+        this.blockCount = blockCount;
+        this.cutNode = cutNode;
+        this.cutVertex = cutVertex;
+        this.blockOf = blockOf;
+        this.treeParent = treeParent;
+        this.depth = depth;
+        this.treeRoot = treeRoot;
+        this.first = first;
+        this.tour = tour;
+        this.sparse = sparse;
+    }
+
+    public static BlockCutTree build(CompressedAdjacency adjacency) {
+        Metrics.Phase phase = Metrics.phase("block_cut_tree");
+        GraphEvents.Span event = GraphEvents.algorithm("block_cut_tree", "build", adjacency.vertexCount(), adjacency.edgeCount());
+        long start = phase.start();
+        int n = adjacency.vertexCount();
+
+        // Iterative Hopcroft-Tarjan; a block is closed when a child's low value does not reach above its parent
+        CompressedAdjacency.Cursor cursor = adjacency.cursor();
+        int[] disc = new int[n];
+        int[] low = new int[n];
+        int[] parent = new int[n];
+        long[] resume = new long[n];
+        int[] stack = new int[n];
+        int[] pending = new int[n];
+        boolean[] cut = new boolean[n];
+        int[] blockStart = new int[n + 1];
+        int[] members = new int[2 * n];
+        int blocks = 0, memberCount = 0, time = 0;
+        for (int root = 0; root < n; root++) {
+            if (disc[root] != 0) continue;
+            int top = 0, pendingTop = 0, rootChildren = 0;
+            stack[top++] = root;
+            pending[pendingTop++] = root;
+            parent[root] = -1;
+            disc[root] = low[root] = ++time;
+            cursor.reset(root);
+            resume[root] = cursor.position();
+            while (top > 0) {
+                int u = stack[top - 1];
+                cursor.seek(u, resume[u]);
+                if (cursor.next()) {
+                    resume[u] = cursor.position();
+                    int v = cursor.neighbor();
+                    if (disc[v] == 0) {
+                        if (u == root) rootChildren++;
+                        parent[v] = u;
+                        disc[v] = low[v] = ++time;
+                        cursor.reset(v);
+                        resume[v] = cursor.position();
+                        stack[top++] = v;
+                        pending[pendingTop++] = v;
+                    } else if (v != parent[u]) {
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                    continue;
+                }
+                top--;
+                int p = parent[u];
+                if (p < 0) continue;
+                low[p] = Math.min(low[p], low[u]);
+                if (low[u] >= disc[p]) {
+                    if (p != root) cut[p] = true;
+                    if (blocks + 1 >= blockStart.length) blockStart = Arrays.copyOf(blockStart, blockStart.length * 2);
+                    int w;
+                    do {
+                        w = pending[--pendingTop];
+                        if (memberCount == members.length) members = Arrays.copyOf(members, members.length * 2);
+                        members[memberCount++] = w;
+                    } while (w != u);
+                    if (memberCount == members.length) members = Arrays.copyOf(members, members.length * 2);
+                    members[memberCount++] = p;
+                    blockStart[++blocks] = memberCount;
+                }
+            }
+            if (rootChildren > 1) cut[root] = true;
+            if (rootChildren == 0) {
+                // An isolated vertex is a block of its own
+                if (blocks + 1 >= blockStart.length) blockStart = Arrays.copyOf(blockStart, blockStart.length * 2);
+                if (memberCount == members.length) members = Arrays.copyOf(members, members.length * 2);
+                members[memberCount++] = root;
+                blockStart[++blocks] = memberCount;
+            }
+        }
+
+        int[] cutNode = new int[n];
+        int nodes = blocks;
+        for (int v = 0; v < n; v++) {
+            cutNode[v] = cut[v] ? nodes++ : -1;
+        }
+        int[] cutVertex = new int[nodes - blocks];
+        for (int v = 0; v < n; v++) {
+            if (cut[v]) cutVertex[cutNode[v] - blocks] = v;
+        }
+        int[] blockOf = new int[n];
+        int[] degree = new int[nodes + 1];
+        for (int b = 0; b < blocks; b++) {
+            for (int i = blockStart[b]; i < blockStart[b + 1]; i++) {
+                int v = members[i];
+                blockOf[v] = b;
+                if (cut[v]) {
+                    degree[b + 1]++;
+                    degree[cutNode[v] + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < nodes; i++) degree[i + 1] += degree[i];
+        int[] fill = Arrays.copyOf(degree, nodes);
+        int[] treeAdjacency = new int[degree[nodes]];
+        for (int b = 0; b < blocks; b++) {
+            for (int i = blockStart[b]; i < blockStart[b + 1]; i++) {
+                int v = members[i];
+                if (cut[v]) {
+                    treeAdjacency[fill[b]++] = cutNode[v];
+                    treeAdjacency[fill[cutNode[v]]++] = b;
+                }
+            }
+        }
+
+        // Euler tour of each tree in the forest, iteratively; fill[] becomes the next child slot per node
+        System.arraycopy(degree, 0, fill, 0, nodes);
+        int[] treeParent = new int[nodes];
+        int[] depth = new int[nodes];
+        int[] treeRoot = new int[nodes];
+        int[] first = new int[nodes];
+        Arrays.fill(treeRoot, -1);
+        int[] tour = new int[Math.max(1, 2 * nodes - 1)];
+        int length = 0;
+        int[] path = new int[nodes];
+        for (int r = 0; r < nodes; r++) {
+            if (treeRoot[r] >= 0) continue;
+            int top = 0;
+            path[top++] = r;
+            treeRoot[r] = r;
+            treeParent[r] = -1;
+            first[r] = length;
+            tour[length++] = r;
+            while (top > 0) {
+                int x = path[top - 1];
+                if (fill[x] < degree[x + 1]) {
+                    int y = treeAdjacency[fill[x]++];
+                    if (y == treeParent[x]) continue;
+                    treeParent[y] = x;
+                    treeRoot[y] = r;
+                    depth[y] = depth[x] + 1;
+                    first[y] = length;
+                    tour[length++] = y;
+                    path[top++] = y;
+                } else if (--top > 0) {
+                    tour[length++] = path[top - 1];
+                }
+            }
+        }
+
+        int levels = 1;
+        while ((1 << levels) <= length) levels++;
+        int[][] sparse = new int[levels][];
+        sparse[0] = new int[length];
+        for (int i = 0; i < length; i++) sparse[0][i] = i;
+        for (int k = 1; k < levels; k++) {
+            int half = 1 << (k - 1);
+            int[] previous = sparse[k - 1];
+            int[] level = new int[length - (1 << k) + 1];
+            for (int i = 0; i < level.length; i++) {
+                int a = previous[i], b = previous[i + half];
+                level[i] = depth[tour[a]] <= depth[tour[b]] ? a : b;
+            }
+            sparse[k] = level;
+        }
+        phase.stop(start);
+        event.commit();
+        return new BlockCutTree(blocks, cutNode, cutVertex, blockOf, treeParent, depth, treeRoot, first, Arrays.copyOf(tour, length), sparse);
+    }
+
+    public int blockCount() {
+        return blockCount;
+    }
+
+    public boolean isArticulationPoint(int v) {
+        return cutNode[v] >= 0;
+    }
+
+    /**
+     * True if removing v leaves no path between s and t that existed before; false for v == s or v == t and
+     * for s and t in different components.
+     */
+    public boolean separates(int v, int s, int t) {
+        if (v == s || v == t || cutNode[v] < 0) return false;
+        int a = node(s), b = node(t), x = cutNode[v];
+        if (treeRoot[a] != treeRoot[b] || treeRoot[x] != treeRoot[a]) return false;
+        return distance(a, x) + distance(x, b) == distance(a, b);
+    }
+
+    /** Every vertex whose removal separates s from t, ordered from s to t. */
+    public int[] separators(int s, int t) {
+        int a = node(s), b = node(t);
+        if (s == t || treeRoot[a] != treeRoot[b]) return new int[0];
+        int lca = lca(a, b);
+        int[] fromS = new int[depth[a] - depth[lca] + 1];
+        int[] fromT = new int[depth[b] - depth[lca]];
+        int countS = 0, countT = 0;
+        for (int x = a; x != lca; x = treeParent[x]) fromS[countS++] = x;
+        fromS[countS++] = lca;
+        for (int x = b; x != lca; x = treeParent[x]) fromT[countT++] = x;
+
+        int[] result = new int[countS + countT];
+        int count = 0;
+        for (int i = 0; i < countS; i++) count = addCut(result, count, fromS[i], s, t);
+        for (int i = countT - 1; i >= 0; i--) count = addCut(result, count, fromT[i], s, t);
+        return Arrays.copyOf(result, count);
+    }
+
+    private int addCut(int[] result, int count, int node, int s, int t) {
+        if (node < blockCount) return count;
+        int v = cutVertex[node - blockCount];
+        if (v != s && v != t) result[count++] = v;
+        return count;
+    }
+
+    private int node(int v) {
+        return cutNode[v] >= 0 ? cutNode[v] : blockOf[v];
+    }
+
+    private int distance(int a, int b) {
+        return depth[a] + depth[b] - 2 * depth[lca(a, b)];
+    }
+
+    private int lca(int a, int b) {
+        int i = first[a], j = first[b];
+        if (i > j) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(j - i + 1);
+        int x = sparse[k][i], y = sparse[k][j - (1 << k) + 1];
+        return depth[tour[x]] <= depth[tour[y]] ? tour[x] : tour[y];
+    }
+}
@@ -0,0 +1,201 @@
+package fcu.web;
+
+import java.util.Arrays;
+
+/**
+ * Weighted undirected adjacency packed into one byte array, in the style of WebGraph.
+ * The neighbors of v are stored sorted: the first as a zigzag varint of its difference to v, the rest as
+ * varint gaps to the previous neighbor. Each neighbor is followed by its weight, one byte when every weight
+ * is in 0..255 and a zigzag varint otherwise. A random graph with a million vertices takes about 4 bytes per
+ * directed edge against 12 for int neighbor, edge id and weight arrays; gaps, and so the size, shrink when
+ * neighbors have nearby ids.
+ * Edge ids are not stored; Graph.edgeId maps a (u, v) pair back to its id.
+ * These figures are for the adjacency alone (40 MB instead of 118 MB of int arrays at a million vertices and
+ * five million edges). Graph keeps it next to its Edge objects and the pair-to-id map, which hold the ids and
+ * back snapshots, so the whole Graph measures about 410 MB of heap there.
+ */
+public class CompressedAdjacency {
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int[] offsets;
+    private final byte[] data;
+    private final boolean byteWeights;
+    private final int minWeight, maxWeight;
+
+    private CompressedAdjacency(int vertexCount, int edgeCount, int[] offsets, byte[] data,
+                                boolean byteWeights, int minWeight, int maxWeight) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.data = data;
+        this.byteWeights = byteWeights;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    /** Builds from an edge list; each edge is stored under both endpoints. Uses int arrays of 2 * edgeCount while building. */
+    public static CompressedAdjacency build(int vertexCount, int[] from, int[] to, int[] weight, int edgeCount) {
+        int[] start = new int[vertexCount + 1];
+        int minWeight = Integer.MAX_VALUE, maxWeight = Integer.MIN_VALUE;
+        for (int e = 0; e < edgeCount; e++) {
+            start[from[e] + 1]++;
+            start[to[e] + 1]++;
+            minWeight = Math.min(minWeight, weight[e]);
+            maxWeight = Math.max(maxWeight, weight[e]);
+        }
+        int maxDegree = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            maxDegree = Math.max(maxDegree, start[v + 1]);
+            start[v + 1] += start[v];
+        }
+        int[] fill = new int[vertexCount];
+        int[] neighbors = new int[start[vertexCount]];
+        int[] weights = new int[start[vertexCount]];
+        for (int e = 0; e < edgeCount; e++) {
+            int u = from[e], v = to[e];
+            int i = start[u] + fill[u]++;
+            neighbors[i] = v;
+            weights[i] = weight[e];
+            int j = start[v] + fill[v]++;
+            neighbors[j] = u;
+            weights[j] = weight[e];
+        }
+        fill = null;
+
+        boolean byteWeights = edgeCount == 0 || (minWeight >= 0 && maxWeight <= 0xFF);
+        int[] offsets = new int[vertexCount + 1];
+        byte[] data = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, start[vertexCount] * 3L))];
+        int pos = 0;
+        // Row entries as neighbor << 32 | slot, so sorting keeps each weight with its neighbor
+        long[] row = new long[maxDegree];
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v] = pos;
+            int degree = start[v + 1] - start[v];
+            for (int k = 0; k < degree; k++) {
+                row[k] = (long) neighbors[start[v] + k] << 32 | (start[v] + k);
+            }
+            Arrays.sort(row, 0, degree);
+            int previous = v;
+            for (int k = 0; k < degree; k++) {
+                int neighbor = (int) (row[k] >>> 32);
+                int w = weights[(int) row[k]];
+                if (data.length - pos < 15) {
+                    data = Arrays.copyOf(data, Math.min(Integer.MAX_VALUE - 8, data.length + (data.length >> 1) + 16));
+                }
+                pos = putVarint(data, pos, k == 0 ? zigzag(neighbor - v) : neighbor - previous);
+                if (byteWeights) {
+                    data[pos++] = (byte) w;
+                } else {
+                    pos = putVarint(data, pos, zigzag(w));
+                }
+                previous = neighbor;
+            }
+        }
+        offsets[vertexCount] = pos;
+        if (edgeCount == 0) {
+            minWeight = maxWeight = 0;
+        }
+        return new CompressedAdjacency(vertexCount, edgeCount, offsets, Arrays.copyOf(data, pos),
+                byteWeights, minWeight, maxWeight);
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int minWeight() {
+        return minWeight;
+    }
+
+    public int maxWeight() {
+        return maxWeight;
+    }
+
+    /** Bytes held by the encoded lists and their offsets. */
+    public long sizeInBytes() {
+        return (long) data.length + 4L * offsets.length;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private static int putVarint(byte[] data, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            data[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Reusable decoder over one neighbor list: reset(v), then while (next()) read neighbor() and weight().
+     * position() and seek() save and resume a list part way, so an iterative DFS needs one cursor in total.
+     */
+    public final class Cursor {
+        private int vertex, pos, end, neighbor, weight;
+
+        private Cursor() {
+        }
+
+        public void reset(int v) {
+            vertex = v;
+            pos = offsets[v];
+            end = offsets[v + 1];
+            neighbor = v;
+        }
+
+        public boolean next() {
+            if (pos >= end) return false;
+            // The first entry is relative to the vertex itself and may be negative
+            boolean first = pos == offsets[vertex];
+            int gap = readVarint();
+            neighbor = first ? vertex + ((gap >>> 1) ^ -(gap & 1)) : neighbor + gap;
+            if (byteWeights) {
+                weight = data[pos++] & 0xFF;
+            } else {
+                int w = readVarint();
+                weight = (w >>> 1) ^ -(w & 1);
+            }
+            return true;
+        }
+
+        public int neighbor() {
+            return neighbor;
+        }
+
+        public int weight() {
+            return weight;
+        }
+
+        /** Resume point after the current entry. */
+        public long position() {
+            return (long) neighbor << 32 | (pos & 0xFFFFFFFFL);
+        }
+
+        public void seek(int v, long position) {
+            vertex = v;
+            end = offsets[v + 1];
+            pos = (int) position;
+            neighbor = (int) (position >>> 32);
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[pos++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+    }
+}
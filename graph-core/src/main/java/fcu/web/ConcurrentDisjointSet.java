@@ -0,0 +1,62 @@
+package fcu.web;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Union-find that any number of threads can use at once, without locks.
+ * A root is always linked under the smaller of the two roots with a CAS on its own slot, so links never form a
+ * cycle and a failed CAS only means another thread got there first. find does path splitting: every node on the
+ * way up is pointed at its grandparent, with a plain CAS that may fail harmlessly.
+ */
+public class ConcurrentDisjointSet {
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentDisjointSet(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    public int size() {
+        return parent.length();
+    }
+
+    public int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) return x;
+            int grandparent = parent.get(p);
+            if (p != grandparent) {
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = p;
+        }
+    }
+
+    /** Returns true if this call joined two different sets. */
+    public boolean union(int x, int y) {
+        while (true) {
+            x = find(x);
+            y = find(y);
+            if (x == y) return false;
+            if (x < y) {
+                int t = x;
+                x = y;
+                y = t;
+            }
+            // x is the larger root; it stays a root until this CAS or another thread links it
+            if (parent.compareAndSet(x, x, y)) return true;
+        }
+    }
+
+    public boolean sameSet(int x, int y) {
+        while (true) {
+            x = find(x);
+            y = find(y);
+            if (x == y) return true;
+            // Both were roots when read; if x still is, they were in different sets at that moment
+            if (parent.get(x) == x) return false;
+        }
+    }
+}
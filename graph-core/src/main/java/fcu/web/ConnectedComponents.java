@@ -0,0 +1,88 @@
+package fcu.web;
+
+import java.util.stream.IntStream;
+
+/**
+ * Connected components of an undirected edge list, computed on all cores: the edges are split into chunks that
+ * union into one ConcurrentDisjointSet in parallel, then every vertex looks up its root in parallel.
+ * Components are numbered in order of their smallest vertex.
+ */
+public class ConnectedComponents {
+    private static final int CHUNK = 1 << 14;
+
+    private final int[] component;
+    private final int[] sizes;
+    private final int largest;
+
+    private ConnectedComponents(int[] component, int[] sizes) {
+        this.component = component;
+        this.sizes = sizes;
+        int best = -1;
+        for (int c = 0; c < sizes.length; c++) {
+            if (best < 0 || sizes[c] > sizes[best]) best = c;
+        }
+        this.largest = best;
+    }
+
+    public static ConnectedComponents compute(int vertexCount, int[] from, int[] to, int edgeCount) {
+        Metrics.Phase phase = Metrics.phase("components");
+        GraphEvents.Span event = GraphEvents.algorithm("components", "union_find", vertexCount, edgeCount);
+        long start = phase.start();
+        ConcurrentDisjointSet sets = new ConcurrentDisjointSet(vertexCount);
+        int chunks = (edgeCount + CHUNK - 1) / CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int end = Math.min(edgeCount, (chunk + 1) * CHUNK);
+            for (int e = chunk * CHUNK; e < end; e++) {
+                sets.union(from[e], to[e]);
+            }
+        });
+
+        // Roots are the smallest vertex of their set, since a root is only ever linked under a smaller one
+        int[] component = new int[vertexCount];
+        IntStream.range(0, vertexCount).parallel().forEach(v -> component[v] = sets.find(v));
+        int count = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (component[v] == v) component[v] = -1 - count++;
+        }
+        int[] sizes = new int[count];
+        for (int v = 0; v < vertexCount; v++) {
+            int c = component[v];
+            // A root comes before the rest of its set, so component[c] is already its index
+            component[v] = c < 0 ? -1 - c : component[c];
+            sizes[component[v]]++;
+        }
+        phase.stop(start);
+        event.commit();
+        return new ConnectedComponents(component, sizes);
+    }
+
+    public int count() {
+        return sizes.length;
+    }
+
+    public boolean isConnected() {
+        return sizes.length <= 1;
+    }
+
+    public int componentOf(int v) {
+        return component[v];
+    }
+
+    public int size(int c) {
+        return sizes[c];
+    }
+
+    /** Index of the component with the most vertices, or -1 for an empty graph. */
+    public int largest() {
+        return largest;
+    }
+
+    public int[] vertices(int c) {
+        int[] result = new int[sizes[c]];
+        int k = 0;
+        for (int v = 0; v < component.length && k < result.length; v++) {
+            if (component[v] == c) result[k++] = v;
+        }
+        return result;
+    }
+}
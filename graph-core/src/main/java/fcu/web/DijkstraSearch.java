@@ -0,0 +1,176 @@
+package fcu.web;
+
+import java.util.Arrays;
+
+/**
+ * Reusable single-source Dijkstra over a compressed adjacency, with an indexed binary heap.
+ * The arrays are allocated once per vertex count; a generation stamp marks what the current run has touched,
+ * so starting a run is O(1) instead of refilling O(V) arrays. One instance per thread at a time.
+ */
+final class DijkstraSearch {
+    private final CompressedAdjacency.Cursor cursor;
+    private final long[] dist;
+    private final int[] prev;
+    private final int[] stamp;
+    private final int[] banned;
+    private final int[] wanted;
+    private final int[] heap;
+    private final int[] heapIndex;
+    private int generation;
+    private int size;
+    private int bannedFrom = -1;
+    private int[] bannedTo;
+    private int bannedCount;
+
+    DijkstraSearch(CompressedAdjacency adjacency) {
+        int n = adjacency.vertexCount();
+        cursor = adjacency.cursor();
+        dist = new long[n];
+        prev = new int[n];
+        stamp = new int[n];
+        banned = new int[n];
+        wanted = new int[n];
+        heap = new int[n];
+        heapIndex = new int[n];
+    }
+
+    /** Forgets the previous run, its bans and its targets. */
+    void reset() {
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            Arrays.fill(banned, 0);
+            Arrays.fill(wanted, 0);
+            generation = 1;
+        }
+        bannedFrom = -1;
+        bannedCount = 0;
+    }
+
+    void ban(int v) {
+        banned[v] = generation;
+    }
+
+    /** Skips the edges from one vertex to the given neighbors. */
+    void banEdges(int from, int[] to, int count) {
+        bannedFrom = from;
+        bannedTo = to;
+        bannedCount = count;
+    }
+
+    /** Runs from source until every target is settled, or the reachable part is exhausted. */
+    void run(int source, int[] targets, int targetCount) {
+        int remaining = 0;
+        for (int i = 0; i < targetCount; i++) {
+            if (wanted[targets[i]] != generation) {
+                wanted[targets[i]] = generation;
+                remaining++;
+            }
+        }
+        size = 0;
+        touch(source, 0, -1);
+        push(source);
+        while (size > 0 && remaining > 0) {
+            int u = pop();
+            if (wanted[u] == generation) {
+                remaining--;
+            }
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.neighbor();
+                if (banned[v] == generation) continue;
+                if (u == bannedFrom && isBannedEdge(v)) continue;
+                long alt = dist[u] + cursor.weight();
+                if (stamp[v] != generation) {
+                    touch(v, alt, u);
+                    push(v);
+                } else if (heapIndex[v] >= 0 && alt < dist[v]) {
+                    dist[v] = alt;
+                    prev[v] = u;
+                    siftUp(heapIndex[v]);
+                }
+            }
+        }
+    }
+
+    /** Whether v was settled or at least reached by the last run; distance and previous are only final if settled. */
+    boolean reached(int v) {
+        return stamp[v] == generation;
+    }
+
+    long distance(int v) {
+        return dist[v];
+    }
+
+    int previous(int v) {
+        return prev[v];
+    }
+
+    /** Vertices from the source to v, or an empty array if v was not reached. */
+    int[] path(int v) {
+        if (!reached(v)) return new int[0];
+        int length = 0;
+        for (int at = v; at != -1; at = prev[at]) length++;
+        int[] path = new int[length];
+        for (int at = v; at != -1; at = prev[at]) path[--length] = at;
+        return path;
+    }
+
+    private boolean isBannedEdge(int v) {
+        for (int i = 0; i < bannedCount; i++) {
+            if (bannedTo[i] == v) return true;
+        }
+        return false;
+    }
+
+    private void touch(int v, long d, int from) {
+        stamp[v] = generation;
+        dist[v] = d;
+        prev[v] = from;
+    }
+
+    private void push(int v) {
+        heap[size] = v;
+        heapIndex[v] = size;
+        siftUp(size++);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (dist[p] <= dist[v]) break;
+            heap[i] = p;
+            heapIndex[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && dist[heap[child + 1]] < dist[heap[child]]) child++;
+            if (dist[heap[child]] >= dist[v]) break;
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+}
@@ -0,0 +1,345 @@
+package fcu.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest path tree from one source that is repaired after each edge edit instead of recomputed, in the style
+ * of Ramalingam and Reps. An insertion or weight decrease propagates the improvement outwards from the edge.
+ * A deletion or weight increase first collects the vertices left without a shortest path through unchanged
+ * vertices, then reruns Dijkstra over just those, seeded from their unchanged neighbors. Either way the work is
+ * bounded by the vertices whose distance changes and their edges, not by the graph.
+ * <p>
+ * Edits go through this object, which applies them to the graph and to its own mutable adjacency. Weights must
+ * be positive. One thread at a time.
+ */
+public final class DynamicShortestPaths {
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final Graph graph;
+    private final int source;
+    private final int[][] neighbors;
+    private final int[][] weights;
+    private final int[] degree;
+    private final long[] dist;
+    private final int[] prev;
+    // Vertices found affected by the current deletion or increase carry its generation
+    private final int[] affected;
+    private final int[] affectedList;
+    private final int[] heap;
+    private final int[] heapIndex;
+    private int generation;
+    private int size;
+    private long edgesScanned;
+
+    /** Runs Dijkstra from source once over the writer graph; later edits only repair it. */
+    public DynamicShortestPaths(Graph graph, int source) {
+        if (graph.isSnapshot()) throw new IllegalArgumentException("Edits need the graph itself, not a snapshot");
+        int n = graph.getVertexCount();
+        if (source < 0 || source >= n) throw new IllegalArgumentException("Vertex out of range: " + source);
+        this.graph = graph;
+        this.source = source;
+        degree = new int[n];
+        for (Graph.Edge edge : graph.getEdges()) {
+            checkWeight(edge.weight);
+            degree[edge.source]++;
+            degree[edge.destination]++;
+        }
+        neighbors = new int[n][];
+        weights = new int[n][];
+        for (int v = 0; v < n; v++) {
+            neighbors[v] = new int[degree[v]];
+            weights[v] = new int[degree[v]];
+            degree[v] = 0;
+        }
+        for (Graph.Edge edge : graph.getEdges()) {
+            addArc(edge.source, edge.destination, edge.weight);
+            addArc(edge.destination, edge.source, edge.weight);
+        }
+        dist = new long[n];
+        prev = new int[n];
+        affected = new int[n];
+        affectedList = new int[n];
+        heap = new int[n];
+        heapIndex = new int[n];
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(prev, -1);
+        Arrays.fill(heapIndex, -1);
+
+        Metrics.Phase phase = Metrics.phase("dynamic_sssp.build");
+        long startTime = phase.start();
+        improve(source, 0, -1);
+        propagate();
+        phase.stop(startTime);
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    /** Distance from the source, or -1 if v cannot be reached. */
+    public long distance(int v) {
+        return dist[v] == UNREACHABLE ? -1 : dist[v];
+    }
+
+    /** Vertices from the source to target, or an empty list if target cannot be reached. */
+    public List<Integer> path(int target) {
+        if (dist[target] == UNREACHABLE) return List.of();
+        List<Integer> path = new ArrayList<>();
+        for (int at = target; at != -1; at = prev[at]) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /** Adds the edge and repairs the tree; returns how many vertices got closer to the source. */
+    public int addEdge(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        checkWeight(weight);
+        if (u == v) throw new IllegalArgumentException("Self-loop at " + u);
+        if (graph.hasEdge(u, v)) throw new IllegalArgumentException("Edge " + u + "-" + v + " already exists");
+        graph.addEdge(u, v, weight);
+        addArc(u, v, weight);
+        addArc(v, u, weight);
+        return decreased(u, v, weight);
+    }
+
+    /** Removes the edge and repairs the tree; returns how many vertices moved away from the source. */
+    public int removeEdge(int u, int v) {
+        int weight = weightOf(u, v);
+        graph.removeEdge(u, v);
+        removeArc(u, v, weight);
+        removeArc(v, u, weight);
+        return increased(u, v, weight);
+    }
+
+    /** Changes the edge weight and repairs the tree; returns how many vertices changed distance. */
+    public int setWeight(int u, int v, int weight) {
+        checkWeight(weight);
+        int old = weightOf(u, v);
+        graph.setWeight(u, v, weight);
+        setArc(u, v, old, weight);
+        setArc(v, u, old, weight);
+        if (weight < old) return decreased(u, v, weight);
+        if (weight > old) return increased(u, v, old);
+        return 0;
+    }
+
+    private int weightOf(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        int id = graph.edgeId(u, v);
+        if (id < 0) throw new IllegalArgumentException("No edge " + u + "-" + v);
+        return graph.getEdge(id).weight;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= dist.length) throw new IllegalArgumentException("Vertex out of range: " + v);
+    }
+
+    private static void checkWeight(int weight) {
+        if (weight <= 0) throw new IllegalArgumentException("Weights must be positive: " + weight);
+    }
+
+    // Only vertices that end up strictly closer are popped, so the pop count is the number that changed
+    private int decreased(int u, int v, int weight) {
+        Metrics.Phase phase = Metrics.phase("dynamic_sssp.repair");
+        long startTime = phase.start();
+        edgesScanned = 0;
+        relax(u, v, weight);
+        relax(v, u, weight);
+        int changed = propagate();
+        phase.stop(startTime);
+        record(changed);
+        return changed;
+    }
+
+    private int increased(int u, int v, int oldWeight) {
+        Metrics.Phase phase = Metrics.phase("dynamic_sssp.repair");
+        long startTime = phase.start();
+        edgesScanned = 0;
+        if (++generation == 0) {
+            Arrays.fill(affected, 0);
+            generation = 1;
+        }
+        // Phase 1: in increasing old distance, so every possible support of a vertex is decided before it is.
+        // A vertex keeps its distance iff some unaffected neighbor still reaches it by a tight edge.
+        int count = 0;
+        seed(u, v, oldWeight);
+        seed(v, u, oldWeight);
+        while (size > 0) {
+            int x = pop();
+            int support = support(x);
+            if (support >= 0) {
+                prev[x] = support;
+                continue;
+            }
+            affected[x] = generation;
+            affectedList[count++] = x;
+            int[] adjacent = neighbors[x], weight = weights[x];
+            for (int i = 0; i < degree[x]; i++) {
+                int z = adjacent[i];
+                edgesScanned++;
+                if (z != source && heapIndex[z] < 0 && affected[z] != generation && dist[x] + weight[i] == dist[z]) {
+                    push(z);
+                }
+            }
+        }
+        // Phase 2: affected vertices start from their best unaffected neighbor and settle among themselves
+        for (int i = 0; i < count; i++) {
+            dist[affectedList[i]] = UNREACHABLE;
+            prev[affectedList[i]] = -1;
+        }
+        for (int i = 0; i < count; i++) {
+            int x = affectedList[i];
+            int[] adjacent = neighbors[x], weight = weights[x];
+            for (int j = 0; j < degree[x]; j++) {
+                int y = adjacent[j];
+                edgesScanned++;
+                if (affected[y] != generation && dist[y] != UNREACHABLE && dist[y] + weight[j] < dist[x]) {
+                    dist[x] = dist[y] + weight[j];
+                    prev[x] = y;
+                }
+            }
+            if (dist[x] != UNREACHABLE) push(x);
+        }
+        propagate();
+        phase.stop(startTime);
+        record(count);
+        return count;
+    }
+
+    private void seed(int u, int v, int oldWeight) {
+        if (v != source && dist[u] != UNREACHABLE && dist[u] + oldWeight == dist[v] && heapIndex[v] < 0) push(v);
+    }
+
+    // An unaffected neighbor on a shortest path to x, preferring the current parent
+    private int support(int x) {
+        int best = -1;
+        int[] adjacent = neighbors[x], weight = weights[x];
+        for (int i = 0; i < degree[x]; i++) {
+            int y = adjacent[i];
+            edgesScanned++;
+            if (affected[y] != generation && dist[y] != UNREACHABLE && dist[y] + weight[i] == dist[x]) {
+                if (y == prev[x]) return y;
+                best = y;
+            }
+        }
+        return best;
+    }
+
+    private void record(int changed) {
+        Metrics.counter("dynamic_sssp.edits").increment();
+        Metrics.counter("dynamic_sssp.changed_vertices").add(changed);
+        Metrics.counter("dynamic_sssp.edges_scanned").add(edgesScanned);
+    }
+
+    private void relax(int u, int v, int weight) {
+        if (dist[u] != UNREACHABLE && dist[u] + weight < dist[v]) improve(v, dist[u] + weight, u);
+    }
+
+    private void improve(int v, long d, int from) {
+        dist[v] = d;
+        prev[v] = from;
+        if (heapIndex[v] >= 0) {
+            siftUp(heapIndex[v]);
+        } else {
+            push(v);
+        }
+    }
+
+    // Dijkstra from whatever is queued; returns the number of vertices settled
+    private int propagate() {
+        int settled = 0;
+        while (size > 0) {
+            int u = pop();
+            settled++;
+            int[] adjacent = neighbors[u], weight = weights[u];
+            for (int i = 0; i < degree[u]; i++) {
+                edgesScanned++;
+                relax(u, adjacent[i], weight[i]);
+            }
+        }
+        return settled;
+    }
+
+    private void addArc(int u, int v, int weight) {
+        if (degree[u] == neighbors[u].length) {
+            int capacity = Math.max(4, degree[u] * 2);
+            neighbors[u] = Arrays.copyOf(neighbors[u], capacity);
+            weights[u] = Arrays.copyOf(weights[u], capacity);
+        }
+        neighbors[u][degree[u]] = v;
+        weights[u][degree[u]] = weight;
+        degree[u]++;
+    }
+
+    private void removeArc(int u, int v, int weight) {
+        int i = arc(u, v, weight);
+        int last = --degree[u];
+        neighbors[u][i] = neighbors[u][last];
+        weights[u][i] = weights[u][last];
+    }
+
+    private void setArc(int u, int v, int old, int weight) {
+        weights[u][arc(u, v, old)] = weight;
+    }
+
+    // The arc of the graph's edge: with parallel edges, the copy that has its weight
+    private int arc(int u, int v, int weight) {
+        for (int i = 0; i < degree[u]; i++) {
+            if (neighbors[u][i] == v && weights[u][i] == weight) return i;
+        }
+        throw new IllegalStateException("Adjacency out of sync with the graph at " + u + "-" + v);
+    }
+
+    private void push(int v) {
+        heap[size] = v;
+        heapIndex[v] = size;
+        siftUp(size++);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (dist[p] <= dist[v]) break;
+            heap[i] = p;
+            heapIndex[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && dist[heap[child + 1]] < dist[heap[child]]) child++;
+            if (dist[heap[child]] >= dist[v]) break;
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+}
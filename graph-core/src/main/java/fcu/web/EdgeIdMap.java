@@ -0,0 +1,113 @@
+package fcu.web;
+
+import java.util.Arrays;
+
+/**
+ * Maps an undirected vertex pair to its edge id without boxing (open addressing over long keys).
+ */
+public class EdgeIdMap {
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public EdgeIdMap() {
+        this(16);
+    }
+
+    public EdgeIdMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private static long key(int u, int v) {
+        int a = Math.min(u, v), b = Math.max(u, v);
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 33) & (keys.length - 1);
+    }
+
+    // Returns the id stored for (u, v), or -1
+    public int get(int u, int v) {
+        long key = key(u, v);
+        int mask = keys.length - 1;
+        for (int i = slot(key); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return -1;
+    }
+
+    public boolean contains(int u, int v) {
+        return get(u, v) >= 0;
+    }
+
+    // Returns the id previously stored for (u, v), or -1
+    public int put(int u, int v, int id) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        long key = key(u, v);
+        int mask = keys.length - 1;
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = id;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = id;
+        size++;
+        return -1;
+    }
+
+    // Returns the id that was stored for (u, v), or -1; later entries of the probe run shift back into the hole
+    public int remove(int u, int v) {
+        long key = key(u, v);
+        int mask = keys.length - 1;
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) return -1;
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            // keys[j] may move to i only if i lies on its probe path, i.e. between home and j (cyclically)
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put((int) (oldKeys[i] >>> 32), (int) oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package fcu.web;
+
+import java.util.Arrays;
+
+/**
+ * Undirected edge list with stable ids (insertion order) and O(1) pair lookup.
+ */
+public class EdgeTable {
+    private int[] from, to, weight;
+    private int size;
+    private final EdgeIdMap ids;
+
+    public EdgeTable(int expectedSize) {
+        int capacity = Math.max(4, expectedSize);
+        from = new int[capacity];
+        to = new int[capacity];
+        weight = new int[capacity];
+        ids = new EdgeIdMap(capacity);
+    }
+
+    // Returns the id of the new edge
+    public int add(int u, int v, int w) {
+        if (size == from.length) {
+            int capacity = size * 2;
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+        }
+        from[size] = u;
+        to[size] = v;
+        weight[size] = w;
+        ids.put(u, v, size);
+        return size++;
+    }
+
+    public int id(int u, int v) {
+        return ids.get(u, v);
+    }
+
+    public boolean contains(int u, int v) {
+        return ids.contains(u, v);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getFrom(int edge) {
+        return from[edge];
+    }
+
+    public int getTo(int edge) {
+        return to[edge];
+    }
+
+    public int getWeight(int edge) {
+        return weight[edge];
+    }
+
+    // Listing row for an edge, formatted on demand by OutputLog
+    public String describe(int edge) {
+        return "Edge: v" + from[edge] + " - v" + to[edge] + " Cost: " + weight[edge];
+    }
+
+    // Trimmed copies for building a GraphGeometry
+    public int[] fromArray() {
+        return Arrays.copyOf(from, size);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(to, size);
+    }
+}
@@ -0,0 +1,208 @@
+package fcu.web;
+
+import java.util.Arrays;
+
+/**
+ * Persistent vector of edges: a 32-way trie of 32-edge chunks plus a tail chunk, as in Clojure's vector. The
+ * writer instance appends, replaces and pops in place in chunks it created since the last freeze; freeze() hands
+ * out an immutable instance sharing every chunk in O(1), and the writer copies a chunk (and its path to the root)
+ * the first time it writes into one that a frozen instance can see. Publishing a version therefore costs the
+ * chunks changed since the previous one, never a copy of the whole list.
+ */
+final class EdgeVector {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    // owner is the writer epoch that may still change slots in place
+    private static final class Node {
+        final Object owner;
+        final Object[] slots;
+
+        Node(Object owner, Object[] slots) {
+            this.owner = owner;
+            this.slots = slots;
+        }
+    }
+
+    private Object owner; // null once frozen
+    private int size;
+    private int shift;
+    private Node root;
+    private Object[] tail;
+    private boolean tailOwned;
+
+    /** An empty writer. */
+    EdgeVector() {
+        owner = new Object();
+        shift = BITS;
+        root = new Node(owner, new Object[WIDTH]);
+        tail = new Object[WIDTH];
+        tailOwned = true;
+    }
+
+    private EdgeVector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFrozen() {
+        return owner == null;
+    }
+
+    Graph.Edge get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Edge " + index + " of " + size);
+        int tailOffset = tailOffset();
+        if (index >= tailOffset) return (Graph.Edge) tail[index - tailOffset];
+        return (Graph.Edge) leafFor(index).slots[index & MASK];
+    }
+
+    void add(Graph.Edge edge) {
+        if (owner == null) throw new UnsupportedOperationException("Frozen edge vector");
+        int inTail = size - tailOffset();
+        if (inTail < WIDTH) {
+            if (!tailOwned) {
+                tail = Arrays.copyOf(tail, WIDTH);
+                tailOwned = true;
+            }
+            tail[inTail] = edge;
+            size++;
+            return;
+        }
+        // Full tail becomes a leaf; one shared with a frozen instance gets no owner, so set() copies it first
+        Node leaf = new Node(tailOwned ? owner : null, tail);
+        if ((size >>> BITS) > (1 << shift)) {
+            Node grown = new Node(owner, new Object[WIDTH]);
+            grown.slots[0] = root;
+            grown.slots[1] = newPath(shift, leaf);
+            root = grown;
+            shift += BITS;
+        } else {
+            root = pushTail(shift, root, leaf);
+        }
+        tail = new Object[WIDTH];
+        tail[0] = edge;
+        tailOwned = true;
+        size++;
+    }
+
+    void set(int index, Graph.Edge edge) {
+        if (owner == null) throw new UnsupportedOperationException("Frozen edge vector");
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Edge " + index + " of " + size);
+        int tailOffset = tailOffset();
+        if (index >= tailOffset) {
+            if (!tailOwned) {
+                tail = Arrays.copyOf(tail, WIDTH);
+                tailOwned = true;
+            }
+            tail[index - tailOffset] = edge;
+        } else {
+            root = set(shift, root, index, edge);
+        }
+    }
+
+    void removeLast() {
+        if (owner == null) throw new UnsupportedOperationException("Frozen edge vector");
+        if (size == 0) throw new IndexOutOfBoundsException("Empty edge vector");
+        int inTail = size - tailOffset();
+        if (inTail > 1 || size == 1) {
+            if (!tailOwned) {
+                tail = Arrays.copyOf(tail, WIDTH);
+                tailOwned = true;
+            }
+            tail[inTail - 1] = null;
+            size--;
+            return;
+        }
+        // The tail empties: the last leaf of the trie becomes the tail
+        Node leaf = leafFor(size - 2);
+        Node popped = popTail(shift, root);
+        if (popped == null) popped = new Node(owner, new Object[WIDTH]);
+        if (shift > BITS && popped.slots[1] == null) {
+            popped = (Node) popped.slots[0];
+            shift -= BITS;
+        }
+        root = popped;
+        tail = leaf.slots;
+        tailOwned = leaf.owner == owner;
+        size--;
+    }
+
+    /** Immutable view of the current contents; the writer stays usable and starts a new epoch. */
+    EdgeVector freeze() {
+        if (owner == null) return this;
+        EdgeVector frozen = new EdgeVector(size, shift, root, tail);
+        owner = new Object();
+        tailOwned = false;
+        return frozen;
+    }
+
+    // Index of the first edge in the tail; the tail holds 1..WIDTH edges once there is any
+    private int tailOffset() {
+        return size == 0 ? 0 : (size - 1) & ~MASK;
+    }
+
+    private Node leafFor(int index) {
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.slots[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private Node editable(Node node) {
+        return node.owner == owner ? node : new Node(owner, node.slots.clone());
+    }
+
+    private Node set(int level, Node parent, int index, Graph.Edge edge) {
+        Node node = editable(parent);
+        int slot = (index >>> level) & MASK;
+        if (level == 0) {
+            node.slots[slot] = edge;
+        } else {
+            node.slots[slot] = set(level - BITS, (Node) node.slots[slot], index, edge);
+        }
+        return node;
+    }
+
+    // Drops the last leaf (the one holding index size - 2); null when parent is left empty
+    private Node popTail(int level, Node parent) {
+        int slot = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Node child = popTail(level - BITS, (Node) parent.slots[slot]);
+            if (child == null && slot == 0) return null;
+            Node node = editable(parent);
+            node.slots[slot] = child;
+            return node;
+        }
+        if (slot == 0) return null;
+        Node node = editable(parent);
+        node.slots[slot] = null;
+        return node;
+    }
+
+    private Node pushTail(int level, Node parent, Node leaf) {
+        Node node = editable(parent);
+        int slot = ((size - 1) >>> level) & MASK;
+        if (level == BITS) {
+            node.slots[slot] = leaf;
+        } else {
+            Node child = (Node) node.slots[slot];
+            node.slots[slot] = child != null ? pushTail(level - BITS, child, leaf) : newPath(level - BITS, leaf);
+        }
+        return node;
+    }
+
+    private Node newPath(int level, Node leaf) {
+        if (level == 0) return leaf;
+        Node node = new Node(owner, new Object[WIDTH]);
+        node.slots[0] = newPath(level - BITS, leaf);
+        return node;
+    }
+}
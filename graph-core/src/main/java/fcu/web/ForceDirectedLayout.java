@@ -0,0 +1,149 @@
+package fcu.web;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Fruchterman-Reingold style spring embedder. Repulsion is approximated with a Barnes-Hut tree,
+ * so each iteration costs O(n log n + m), and per-vertex forces are evaluated in parallel.
+ */
+public class ForceDirectedLayout implements LayoutEngine {
+    // Below this size the fork/join overhead is larger than the work
+    private static final int PARALLEL_THRESHOLD = 2_000;
+
+    private final float idealEdgeLength = 30;
+    private int iterations = 200;
+    private float theta = 0.9f;
+    private float gravity = 0.02f;
+    private long seed = 42;
+
+    private final BarnesHutTree tree = new BarnesHutTree();
+    private final ThreadLocal<int[]> stacks = ThreadLocal.withInitial(() -> new int[tree.stackSize()]);
+
+    public ForceDirectedLayout() {
+    }
+
+    public ForceDirectedLayout setIterations(int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    public ForceDirectedLayout setTheta(float theta) {
+        this.theta = theta;
+        return this;
+    }
+
+    public ForceDirectedLayout setGravity(float gravity) {
+        this.gravity = gravity;
+        return this;
+    }
+
+    public ForceDirectedLayout setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public float getIdealEdgeLength() {
+        return idealEdgeLength;
+    }
+
+    @Override
+    public void layout(AdjacencyIndex graph, float[] x, float[] y) {
+        layout(graph, x, y, Progress.NONE);
+    }
+
+    @Override
+    public void layout(AdjacencyIndex graph, float[] x, float[] y, Progress progress) {
+        int n = graph.vertexCount();
+        if (n == 0) return;
+        float side = idealEdgeLength * (float) Math.sqrt(n);
+        placeMissing(n, x, y, side);
+
+        refine(graph, x, y, iterations, side / 10, progress);
+    }
+
+    // Runs the given number of iterations with linear cooling from startTemperature
+    public void refine(AdjacencyIndex graph, float[] x, float[] y, int iterations, float startTemperature) {
+        refine(graph, x, y, iterations, startTemperature, Progress.NONE);
+    }
+
+    // Same, reporting the positions after every iteration; returns false if progress asked to stop
+    public boolean refine(AdjacencyIndex graph, float[] x, float[] y, int iterations, float startTemperature,
+                          Progress progress) {
+        int n = graph.vertexCount();
+        float[] dx = new float[n];
+        float[] dy = new float[n];
+        float temperature = startTemperature;
+        float cooling = temperature / (iterations + 1);
+        Metrics.Phase phase = Metrics.phase("force.iteration");
+        for (int i = 0; i < iterations; i++) {
+            long start = phase.start();
+            step(graph, x, y, dx, dy, temperature);
+            phase.stop(start);
+            temperature -= cooling;
+            if (!progress.publish(x, y)) return false;
+        }
+        return true;
+    }
+
+    private void placeMissing(int n, float[] x, float[] y, float side) {
+        Random random = new Random(seed);
+        for (int v = 0; v < n; v++) {
+            if (Float.isNaN(x[v]) || Float.isNaN(y[v])) {
+                x[v] = random.nextFloat() * side;
+                y[v] = random.nextFloat() * side;
+            }
+        }
+    }
+
+    /**
+     * One iteration: forces into dx/dy (in parallel), then every vertex moves by at most temperature.
+     * Exposed so multilevel and progressive drivers can run their own schedules.
+     */
+    public void step(AdjacencyIndex graph, float[] x, float[] y, float[] dx, float[] dy, float temperature) {
+        int n = graph.vertexCount();
+        tree.build(x, y, n);
+
+        float cx = 0, cy = 0;
+        for (int v = 0; v < n; v++) {
+            cx += x[v];
+            cy += y[v];
+        }
+        float centerX = cx / n, centerY = cy / n;
+        float k = idealEdgeLength;
+        float k2 = k * k;
+
+        IntStream vertices = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) {
+            vertices = vertices.parallel();
+        }
+        vertices.forEach(v -> {
+            float[] force = new float[2];
+            tree.repulsion(v, theta, k2, stacks.get(), force);
+            float fx = force[0], fy = force[1];
+            float px = x[v], py = y[v];
+            // Attraction d^2 / k along every incident edge
+            for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                int u = graph.neighbor(i);
+                float ex = px - x[u], ey = py - y[u];
+                float d = (float) Math.sqrt(ex * ex + ey * ey);
+                fx -= ex * d / k;
+                fy -= ey * d / k;
+            }
+            // Weak pull to the centroid keeps disconnected components from drifting away
+            fx += (centerX - px) * gravity * k / 10;
+            fy += (centerY - py) * gravity * k / 10;
+            dx[v] = fx;
+            dy[v] = fy;
+        });
+
+        for (int v = 0; v < n; v++) {
+            float len = (float) Math.sqrt(dx[v] * dx[v] + dy[v] * dy[v]);
+            if (len > 0) {
+                float move = Math.min(len, temperature);
+                x[v] += dx[v] / len * move;
+                y[v] += dy[v] / len * move;
+            }
+        }
+    }
+}
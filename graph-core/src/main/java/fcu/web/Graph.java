@@ -0,0 +1,627 @@
+package fcu.web;
+
+import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Weighted undirected graph with the MST, critical node and shortest path algorithms used by GraphGUI.
+ * Edge ids are positions 0..edgeCount-1: addEdge appends, and removeEdge moves the last edge into the freed id.
+ */
+public class Graph {
+    // Below this the fork-join overhead outweighs the parallel articulation point passes
+    private static final int PARALLEL_EDGES = 1 << 16;
+
+    private final int vertices;
+    private final EdgeVector edges;
+    private final List<Edge> edgesView;
+    // The writer's maps, or built on first lookup in a snapshot (copies first, so edgeIds publishes both).
+    // edgeIds maps a vertex pair to one of its edges; copies chains the parallel ones, as (id, id) -> next id.
+    private volatile EdgeIdMap edgeIds;
+    private volatile EdgeIdMap copies;
+    // Derived structures are immutable once built, so readers only need them safely published
+    private volatile CompressedAdjacency compressed;
+    private volatile VertexOrder.Strategy orderStrategy;
+    private volatile Working working;
+    private volatile BlockCutTree blockCutTree;
+    // Writer only: the snapshot of the current edges, handed out again until the next edit
+    private Graph snapshot;
+
+    // Adjacency the algorithms run on, with the order that relabelled it (null for generation order)
+    private static final class Working {
+        final VertexOrder.Strategy strategy;
+        final VertexOrder order;
+        final CompressedAdjacency adjacency;
+
+        Working(VertexOrder.Strategy strategy, VertexOrder order, CompressedAdjacency adjacency) {
+            this.strategy = strategy;
+            this.order = order;
+            this.adjacency = adjacency;
+        }
+    }
+
+    public Graph(int v) {
+        this.vertices = Math.max(0, v);
+        this.edges = new EdgeVector();
+        this.edgesView = new EdgeList(edges);
+        this.copies = new EdgeIdMap();
+        this.edgeIds = new EdgeIdMap();
+    }
+
+    private Graph(Graph writer) {
+        vertices = writer.vertices;
+        edges = writer.edges.freeze();
+        edgesView = new EdgeList(edges);
+        compressed = writer.compressed;
+        orderStrategy = writer.orderStrategy;
+        working = writer.working;
+        blockCutTree = writer.blockCutTree;
+    }
+
+    /**
+     * Read-only copy of the graph as it is now, safe to query from any number of threads while this graph
+     * keeps changing. O(1): it shares the edge chunks and whatever adjacency and indexes are already built;
+     * later edits copy only the chunks they touch. Until then the same snapshot is returned, so its own
+     * lazily built structures are shared too. A snapshot of a snapshot is itself.
+     */
+    public Graph snapshot() {
+        if (isSnapshot()) return this;
+        if (snapshot == null) snapshot = new Graph(this);
+        return snapshot;
+    }
+
+    public boolean isSnapshot() {
+        return edges.isFrozen();
+    }
+
+    public int getVertexCount() {
+        return vertices;
+    }
+
+    public int getEdgeCount() {
+        return edges.size();
+    }
+
+    public Edge getEdge(int id) {
+        return edges.get(id);
+    }
+
+    public List<Edge> getEdges() {
+        return edgesView;
+    }
+
+    // The edge id is its position in edges; a parallel edge becomes the pair's head and chains to the old one
+    public void addEdge(int u, int v, int w) {
+        if (isSnapshot()) throw new UnsupportedOperationException("Graph snapshots are read-only");
+        Edge edge = new Edge(edges.size(), u, v, w);
+        edges.add(edge);
+        int previous = edgeIds.put(u, v, edge.id);
+        if (previous >= 0) copies.put(edge.id, edge.id, previous);
+        edgesChanged();
+    }
+
+    /**
+     * Removes the edge between u and v, if there is one; with parallel edges, the copy edgeId reports, and the
+     * next copy takes over the pair. The last edge moves into the freed id so ids stay dense, which means
+     * anything keyed by edge id must move that one entry too. O(1), plus a walk over the parallel copies of the
+     * moved edge's pair if it has any.
+     */
+    public boolean removeEdge(int u, int v) {
+        if (isSnapshot()) throw new UnsupportedOperationException("Graph snapshots are read-only");
+        int id = edgeIds.get(u, v);
+        if (id < 0) return false;
+        int next = copies.remove(id, id);
+        if (next >= 0) {
+            edgeIds.put(u, v, next);
+        } else {
+            edgeIds.remove(u, v);
+        }
+        int lastId = edges.size() - 1;
+        if (id != lastId) {
+            Edge last = edges.get(lastId);
+            edges.set(id, new Edge(id, last.source, last.destination, last.weight));
+            renameCopy(last.source, last.destination, lastId, id);
+        }
+        edges.removeLast();
+        edgesChanged();
+        return true;
+    }
+
+    // Points whatever referred to edge from (the pair's head or the previous copy in its chain) at to
+    private void renameCopy(int u, int v, int from, int to) {
+        int next = copies.remove(from, from);
+        if (next >= 0) copies.put(to, to, next);
+        int at = edgeIds.get(u, v);
+        if (at == from) {
+            edgeIds.put(u, v, to);
+            return;
+        }
+        while (copies.get(at, at) != from) at = copies.get(at, at);
+        copies.put(at, at, to);
+    }
+
+    /** Changes the weight of the edge between u and v in place, keeping its id; false if there is no such edge. */
+    public boolean setWeight(int u, int v, int w) {
+        if (isSnapshot()) throw new UnsupportedOperationException("Graph snapshots are read-only");
+        int id = edgeIds.get(u, v);
+        if (id < 0) return false;
+        Edge edge = edges.get(id);
+        edges.set(id, new Edge(id, edge.source, edge.destination, w));
+        edgesChanged();
+        return true;
+    }
+
+    private void edgesChanged() {
+        snapshot = null;
+        compressed = null;
+        working = null;
+        blockCutTree = null;
+    }
+
+    public boolean hasEdge(int u, int v) {
+        return edgeIds().contains(u, v);
+    }
+
+    private EdgeIdMap edgeIds() {
+        EdgeIdMap ids = edgeIds;
+        if (ids == null) {
+            ids = new EdgeIdMap(edges.size());
+            EdgeIdMap chained = new EdgeIdMap();
+            for (int id = 0; id < edges.size(); id++) {
+                Edge edge = edges.get(id);
+                int previous = ids.put(edge.source, edge.destination, id);
+                if (previous >= 0) chained.put(id, id, previous);
+            }
+            copies = chained;
+            edgeIds = ids;
+        }
+        return ids;
+    }
+
+    public AdjacencyIndex adjacency() {
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        for (Edge edge : edgesView) {
+            from[edge.id] = edge.source;
+            to[edge.id] = edge.destination;
+        }
+        return AdjacencyIndex.build(vertices, from, to, edges.size());
+    }
+
+    /** Separator index over the original vertex ids; built on first use after the last edit. */
+    public BlockCutTree blockCutTree() {
+        BlockCutTree tree = blockCutTree;
+        if (tree == null) {
+            tree = BlockCutTree.build(compressedAdjacency());
+            blockCutTree = tree;
+        }
+        return tree;
+    }
+
+    public ConnectedComponents connectedComponents() {
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        for (Edge edge : edgesView) {
+            from[edge.id] = edge.source;
+            to[edge.id] = edge.destination;
+        }
+        return ConnectedComponents.compute(vertices, from, to, edges.size());
+    }
+
+    public int edgeId(int u, int v) {
+        return edgeIds().get(u, v);
+    }
+
+    /** Compressed adjacency the algorithms run on; built on first use after the last edit. */
+    public CompressedAdjacency compressedAdjacency() {
+        CompressedAdjacency adjacency = compressed;
+        if (adjacency == null) {
+            int m = edges.size();
+            int[] from = new int[m];
+            int[] to = new int[m];
+            int[] weight = new int[m];
+            for (Edge edge : edgesView) {
+                from[edge.id] = edge.source;
+                to[edge.id] = edge.destination;
+                weight[edge.id] = edge.weight;
+            }
+            adjacency = CompressedAdjacency.build(vertices, from, to, weight, m);
+            compressed = adjacency;
+        }
+        return adjacency;
+    }
+
+    /**
+     * Relabels vertices with the given strategy before running the algorithms, or keeps generation order for null.
+     * Arguments and results stay in original ids. Snapshots keep the order they were taken with.
+     */
+    public void setVertexOrder(VertexOrder.Strategy strategy) {
+        if (isSnapshot()) throw new UnsupportedOperationException("Graph snapshots are read-only");
+        if (strategy != orderStrategy) {
+            orderStrategy = strategy;
+            working = null;
+            snapshot = null;
+        }
+    }
+
+    public VertexOrder.Strategy getVertexOrder() {
+        return orderStrategy;
+    }
+
+    // Adjacency in the working ids with its order, read once per call so both come from the same build
+    private Working working() {
+        VertexOrder.Strategy strategy = orderStrategy;
+        Working current = working;
+        if (current == null || current.strategy != strategy) {
+            CompressedAdjacency natural = compressedAdjacency();
+            if (strategy == null) {
+                current = new Working(null, null, natural);
+            } else {
+                VertexOrder order = VertexOrder.compute(strategy, natural);
+                current = new Working(strategy, order, order.relabel(natural));
+            }
+            working = current;
+        }
+        return current;
+    }
+
+    private static int toOld(VertexOrder mapping, int v) {
+        return mapping == null ? v : mapping.toOld(v);
+    }
+
+    private static int toNew(VertexOrder mapping, int v) {
+        return mapping == null ? v : mapping.toNew(v);
+    }
+
+    public List<Edge> kruskalMST() {
+        Working w = working();
+        return kruskalMST(w.adjacency, w.order, null);
+    }
+
+    /** MST edges as Kruskal accepts them, lightest first; the first arrives right after an O(E) counting sort. */
+    public Flow.Publisher<Edge> streamMST() {
+        Working w = working();
+        return new AlgorithmPublisher<>("mst", sink -> kruskalMST(w.adjacency, w.order, sink));
+    }
+
+    // Runs on the (u, v, weight) entries decoded from the adjacency; only accepted pairs are mapped back to edges
+    private List<Edge> kruskalMST(CompressedAdjacency adjacency, VertexOrder mapping, Consumer<Edge> accepted) {
+        List<Edge> result = new ArrayList<>();
+        int m = adjacency.edgeCount();
+        Metrics.Phase sortPhase = Metrics.phase("kruskal.sort");
+        GraphEvents.Span event = GraphEvents.algorithm("kruskal", "sort", vertices, m);
+        long start = sortPhase.start();
+        long[] sorted = sortByWeight(adjacency);
+        sortPhase.stop(start);
+        event.commit();
+
+        Metrics.Phase unionFindPhase = Metrics.phase("kruskal.union_find");
+        event = GraphEvents.algorithm("kruskal", "union_find", vertices, m);
+        start = unionFindPhase.start();
+        DisjointSet ds = new DisjointSet(vertices);
+        long considered = 0;
+        for (long pair : sorted) {
+            // The tree is complete once it has vertices - 1 edges
+            if (result.size() == vertices - 1) break;
+            considered++;
+            int u = (int) (pair >>> 32), v = (int) pair;
+            if (ds.find(u) != ds.find(v)) {
+                // Kruskal meets a pair first through its lightest copy, so that is the edge it accepted
+                Edge edge = edges.get(lightestCopy(toOld(mapping, u), toOld(mapping, v)));
+                result.add(edge);
+                ds.union(u, v);
+                if (accepted != null) accepted.accept(edge);
+            }
+        }
+        unionFindPhase.stop(start);
+        event.commit();
+        Metrics.counter("kruskal.edges_considered").add(considered);
+        Metrics.counter("kruskal.unions").add(result.size());
+
+        return result;
+    }
+
+    /**
+     * Each edge once, as its u < v entry packed into u << 32 | v, in weight order with ties in adjacency order.
+     * One pass decodes the adjacency; then a counting sort when weights span a small range (1-99 here), else a
+     * sort of weight << 32 | index keys.
+     */
+    private static long[] sortByWeight(CompressedAdjacency adjacency) {
+        int n = adjacency.vertexCount();
+        int m = adjacency.edgeCount();
+        CompressedAdjacency.Cursor cursor = adjacency.cursor();
+        long[] pairs = new long[m];
+        int[] weights = new int[m];
+        int count = 0;
+        for (int u = 0; u < n; u++) {
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.neighbor();
+                if (v > u) {
+                    weights[count] = cursor.weight();
+                    pairs[count++] = (long) u << 32 | v;
+                }
+            }
+        }
+        long[] sorted = new long[m];
+        int min = adjacency.minWeight();
+        if ((long) adjacency.maxWeight() - min + 1 <= 1 << 16) {
+            int[] bucket = new int[adjacency.maxWeight() - min + 2];
+            for (int k = 0; k < m; k++) bucket[weights[k] - min + 1]++;
+            for (int b = 1; b < bucket.length; b++) bucket[b] += bucket[b - 1];
+            for (int k = 0; k < m; k++) sorted[bucket[weights[k] - min]++] = pairs[k];
+            return sorted;
+        }
+        // A signed weight in the high half orders the keys correctly, whatever its range
+        long[] keys = new long[m];
+        for (int k = 0; k < m; k++) keys[k] = (long) weights[k] << 32 | k;
+        Arrays.sort(keys);
+        for (int k = 0; k < m; k++) sorted[k] = pairs[(int) keys[k]];
+        return sorted;
+    }
+
+    // Id of the lightest of the parallel edges between u and v (the only one, without parallel edges)
+    private int lightestCopy(int u, int v) {
+        int best = edgeIds().get(u, v);
+        EdgeIdMap chained = copies;
+        for (int id = chained.get(best, best); id >= 0; id = chained.get(id, id)) {
+            if (edges.get(id).weight < edges.get(best).weight) best = id;
+        }
+        return best;
+    }
+
+    // Parallel Tarjan-Vishkin (see ParallelBiconnectivity) when there are cores to spare, else one iterative DFS
+    public Set<Integer> findCriticalNodes() {
+        Working w = working();
+        return criticalNodes(w.adjacency, w.order, null);
+    }
+
+    /**
+     * Articulation points, each once. The sequential DFS emits them as it proves them; on graphs large enough
+     * for the parallel engine they all arrive at the end, which is still sooner than the DFS would finish.
+     */
+    public Flow.Publisher<Integer> streamCriticalNodes() {
+        Working w = working();
+        return new AlgorithmPublisher<>("critical_nodes", sink -> criticalNodes(w.adjacency, w.order, sink));
+    }
+
+    private Set<Integer> criticalNodes(CompressedAdjacency adjacency, VertexOrder mapping, Consumer<Integer> found) {
+        boolean parallel = ForkJoinPool.getCommonPoolParallelism() > 1 && adjacency.edgeCount() >= PARALLEL_EDGES;
+        Metrics.Phase phase = Metrics.phase("critical_nodes");
+        GraphEvents.Span event = GraphEvents.algorithm("critical_nodes", parallel ? "tarjan_vishkin" : "dfs",
+                vertices, adjacency.edgeCount());
+        long start = phase.start();
+        BitSet cut = parallel
+                ? ParallelBiconnectivity.articulationPoints(adjacency)
+                : articulationPoints(adjacency, found == null ? null : v -> found.accept(toOld(mapping, v)));
+        if (parallel && found != null) {
+            for (int v = cut.nextSetBit(0); v >= 0; v = cut.nextSetBit(v + 1)) {
+                found.accept(toOld(mapping, v));
+            }
+        }
+        Set<Integer> criticalNodes = new HashSet<>();
+        for (int v = cut.nextSetBit(0); v >= 0; v = cut.nextSetBit(v + 1)) {
+            criticalNodes.add(toOld(mapping, v));
+        }
+        phase.stop(start);
+        event.commit();
+        // The parallel engine makes three passes over both directions of every edge, the DFS one
+        Metrics.counter("critical_nodes.edges_scanned").add((parallel ? 6L : 2L) * adjacency.edgeCount());
+        Metrics.counter("critical_nodes.found").add(criticalNodes.size());
+        return criticalNodes;
+    }
+
+    // Iterative Hopcroft-Tarjan; each vertex keeps a resume point in its list instead of a stack frame
+    private static BitSet articulationPoints(CompressedAdjacency adjacency, IntConsumer found) {
+        int n = adjacency.vertexCount();
+        BitSet cut = new BitSet(n);
+        CompressedAdjacency.Cursor cursor = adjacency.cursor();
+        int[] disc = new int[n];
+        int[] low = new int[n];
+        int[] parent = new int[n];
+        long[] resume = new long[n];
+        int[] stack = new int[n];
+        int time = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (disc[root] != 0) continue;
+            int top = 0;
+            int rootChildren = 0;
+            stack[top++] = root;
+            parent[root] = -1;
+            disc[root] = low[root] = ++time;
+            cursor.reset(root);
+            resume[root] = cursor.position();
+            while (top > 0) {
+                int u = stack[top - 1];
+                cursor.seek(u, resume[u]);
+                if (cursor.next()) {
+                    resume[u] = cursor.position();
+                    int v = cursor.neighbor();
+                    if (disc[v] == 0) {
+                        if (u == root) rootChildren++;
+                        parent[v] = u;
+                        disc[v] = low[v] = ++time;
+                        cursor.reset(v);
+                        resume[v] = cursor.position();
+                        stack[top++] = v;
+                    } else if (v != parent[u]) {
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                } else {
+                    top--;
+                    int p = parent[u];
+                    if (p >= 0) {
+                        low[p] = Math.min(low[p], low[u]);
+                        if (p != root && low[u] >= disc[p] && !cut.get(p)) {
+                            cut.set(p);
+                            if (found != null) found.accept(p);
+                        }
+                    }
+                }
+            }
+            if (rootChildren > 1) {
+                cut.set(root);
+                if (found != null) found.accept(root);
+            }
+        }
+        return cut;
+    }
+
+    public List<Integer> dijkstra(int start, int end) {
+        Working w = working();
+        return dijkstra(w.adjacency, w.order, start, end, null);
+    }
+
+    /**
+     * The shortest path tree from start, one vertex at a time in settling order, until end is settled.
+     * The path to end follows the previous links back from end's item, which comes last.
+     */
+    public Flow.Publisher<Settled> streamShortestPathTree(int start, int end) {
+        Working w = working();
+        return new AlgorithmPublisher<>("dijkstra", sink -> dijkstra(w.adjacency, w.order, start, end, sink));
+    }
+
+    private List<Integer> dijkstra(CompressedAdjacency adjacency, VertexOrder mapping, int start, int end,
+                                   Consumer<Settled> settled) {
+        Metrics.Phase phase = Metrics.phase("dijkstra");
+        GraphEvents.Span event = GraphEvents.algorithm("dijkstra", "search", vertices, adjacency.edgeCount());
+        long startTime = phase.start();
+        long pops = 0, stalePops = 0, edgesScanned = 0, relaxed = 0;
+        CompressedAdjacency.Cursor cursor = adjacency.cursor();
+        int[] dist = new int[vertices];
+        int[] prev = new int[vertices];
+        PriorityQueue<Node> pq = new PriorityQueue<>();
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, -1);
+        int source = toNew(mapping, start), target = toNew(mapping, end);
+        dist[source] = 0;
+        pq.offer(new Node(source, 0));
+        while (!pq.isEmpty()) {
+            Node node = pq.poll();
+            pops++;
+            int u = node.vertex;
+            // Entry left behind by a later improvement of dist[u]
+            if (node.dist > dist[u]) {
+                stalePops++;
+                continue;
+            }
+            if (settled != null) {
+                settled.accept(new Settled(toOld(mapping, u), prev[u] < 0 ? -1 : toOld(mapping, prev[u]), dist[u]));
+            }
+            if (u == target) break;
+            cursor.reset(u);
+            while (cursor.next()) {
+                edgesScanned++;
+                int v = cursor.neighbor();
+                int alt = dist[u] + cursor.weight();
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    prev[v] = u;
+                    pq.offer(new Node(v, alt));
+                    relaxed++;
+                }
+            }
+        }
+        phase.stop(startTime);
+        event.commit();
+        Metrics.counter("dijkstra.pops").add(pops);
+        Metrics.counter("dijkstra.stale_pops").add(stalePops);
+        Metrics.counter("dijkstra.edges_scanned").add(edgesScanned);
+        Metrics.counter("dijkstra.relaxed_edges").add(relaxed);
+        List<Integer> path = new ArrayList<>();
+        for (int at = target; at != -1; at = prev[at]) {
+            path.add(toOld(mapping, at));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /** Up to k loopless paths from start to end in increasing cost, each as a vertex list like dijkstra's. */
+    public List<List<Integer>> kShortestPaths(int start, int end, int k) {
+        Working w = working();
+        List<List<Integer>> paths = new ArrayList<>();
+        for (KShortestPaths.Path path : new KShortestPaths(w.adjacency).find(toNew(w.order, start), toNew(w.order, end), k)) {
+            List<Integer> vertices = new ArrayList<>(path.length());
+            for (int i = 0; i < path.length(); i++) {
+                vertices.add(toOld(w.order, path.vertex(i)));
+            }
+            paths.add(vertices);
+        }
+        return paths;
+    }
+
+    /** Batch of shortest path queries in original ids; see BatchQueries for grouping, threads and ordering. */
+    public void shortestPaths(int[] sources, int[] targets, Consumer<BatchQueries.Result> sink) throws InterruptedException {
+        Working w = working();
+        int[] mappedSources = new int[sources.length];
+        int[] mappedTargets = new int[targets.length];
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i] < 0 || sources[i] >= vertices || i >= targets.length || targets[i] < 0 || targets[i] >= vertices) {
+                throw new IllegalArgumentException("Query " + i + " has a vertex outside 0.." + (vertices - 1));
+            }
+            mappedSources[i] = toNew(w.order, sources[i]);
+            mappedTargets[i] = toNew(w.order, targets[i]);
+        }
+        new BatchQueries(w.adjacency).run(mappedSources, mappedTargets, result -> {
+            int[] path = result.path();
+            for (int i = 0; i < path.length; i++) path[i] = toOld(w.order, path[i]);
+            sink.accept(new BatchQueries.Result(result.index, sources[result.index], targets[result.index], result.cost, path));
+        });
+    }
+
+    // Read-only list view; a writer's view follows its edits, a snapshot's never changes
+    private static final class EdgeList extends AbstractList<Edge> implements RandomAccess {
+        private final EdgeVector edges;
+
+        EdgeList(EdgeVector edges) {
+            this.edges = edges;
+        }
+
+        @Override
+        public Edge get(int index) {
+            return edges.get(index);
+        }
+
+        @Override
+        public int size() {
+            return edges.size();
+        }
+    }
+
+    /** A vertex whose shortest distance from the start is final, with its parent in the shortest path tree. */
+    public static final class Settled {
+        public final int vertex, previous, distance;
+
+        Settled(int vertex, int previous, int distance) {
+            this.vertex = vertex;
+            this.previous = previous;
+            this.distance = distance;
+        }
+    }
+
+    public static final class Edge {
+        public final int id;
+        public final int source, destination, weight;
+
+        Edge(int id, int s, int d, int w) {
+            this.id = id;
+            this.source = s;
+            this.destination = d;
+            this.weight = w;
+        }
+    }
+
+    private static class Node implements Comparable<Node> {
+        int vertex, dist;
+        Node(int v, int d) {
+            vertex = v;
+            dist = d;
+        }
+        public int compareTo(Node n) {
+            return Integer.compare(this.dist, n.dist);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package fcu.web;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the expensive stages of the graph windows.
+ * Usage: {@code GraphEvents.Span span = GraphEvents.algorithm(...); ... span.commit();}
+ * Until a recording has started the factories return a shared no-op span and no event class is loaded:
+ * the JDK instruments event classes on first load, which would add a few hundred milliseconds to
+ * headless startup. While recording, begin/commit are cheap enough for continuous recording.
+ * Stack traces are off; the event type already says where it came from.
+ */
+public final class GraphEvents {
+    private static final Span NONE = () -> {
+    };
+
+    private GraphEvents() {
+    }
+
+    public interface Span {
+        void commit();
+    }
+
+    @Name("fcu.web.GraphGeneration")
+    @Label("Graph Generation")
+    @Category({"Graph GUI", "Generation"})
+    @Description("Random graph construction")
+    @StackTrace(false)
+    static class Generation extends Event implements Span {
+        @Label("Vertices")
+        int vertices;
+
+        @Label("Edges")
+        int edges;
+    }
+
+    @Name("fcu.web.Layout")
+    @Label("Layout")
+    @Category({"Graph GUI", "Layout"})
+    @Description("One complete run of a layout engine")
+    @StackTrace(false)
+    static class Layout extends Event implements Span {
+        @Label("Engine")
+        String engine;
+
+        @Label("Vertices")
+        int vertices;
+
+        @Label("Edges")
+        int edges;
+    }
+
+    @Name("fcu.web.AlgorithmPhase")
+    @Label("Algorithm Phase")
+    @Category({"Graph GUI", "Algorithm"})
+    @Description("One phase of a graph algorithm run")
+    @StackTrace(false)
+    static class Algorithm extends Event implements Span {
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Vertices")
+        int vertices;
+
+        @Label("Edges")
+        int edges;
+    }
+
+    @Name("fcu.web.Paint")
+    @Label("Graph Paint")
+    @Category({"Graph GUI", "Rendering"})
+    @Description("One paintComponent call of a graph canvas")
+    @StackTrace(false)
+    static class Paint extends Event implements Span {
+        @Label("Vertices")
+        int vertices;
+
+        @Label("Edges")
+        int edges;
+
+        @Label("Visible Vertices")
+        int visibleVertices;
+
+        @Label("Visible Edges")
+        int visibleEdges;
+
+        @Label("Level Of Detail")
+        String levelOfDetail;
+
+        @Label("Base Layer Rendered")
+        @Description("False when only the cached base layer was blitted and the overlay redrawn")
+        boolean baseLayerRendered;
+    }
+
+    private static boolean recording() {
+        return FlightRecorder.isInitialized();
+    }
+
+    public static Span generation(int vertices, int edges) {
+        if (!recording()) return NONE;
+        Generation event = new Generation();
+        event.vertices = vertices;
+        event.edges = edges;
+        event.begin();
+        return event;
+    }
+
+    public static Span layout(LayoutEngine engine, AdjacencyIndex graph) {
+        if (!recording()) return NONE;
+        Layout event = new Layout();
+        if (event.isEnabled()) {
+            event.engine = engine.getClass().getSimpleName();
+            event.vertices = graph.vertexCount();
+            event.edges = graph.edgeCount();
+        }
+        event.begin();
+        return event;
+    }
+
+    public static Span algorithm(String algorithm, String phase, int vertices, int edges) {
+        if (!recording()) return NONE;
+        Algorithm event = new Algorithm();
+        event.algorithm = algorithm;
+        event.phase = phase;
+        event.vertices = vertices;
+        event.edges = edges;
+        event.begin();
+        return event;
+    }
+
+    // Fields of a paint are only known at the end; see commitPaint
+    public static Span paint() {
+        if (!recording()) return NONE;
+        Paint event = new Paint();
+        event.begin();
+        return event;
+    }
+
+    public static void commitPaint(Span span, int vertices, int edges, int visibleVertices, int visibleEdges,
+                                   String levelOfDetail, boolean baseLayerRendered) {
+        if (span == NONE) return;
+        Paint event = (Paint) span;
+        if (event.shouldCommit()) {
+            event.vertices = vertices;
+            event.edges = edges;
+            event.visibleVertices = visibleVertices;
+            event.visibleEdges = visibleEdges;
+            event.levelOfDetail = levelOfDetail;
+            event.baseLayerRendered = baseLayerRendered;
+            event.commit();
+        }
+    }
+}
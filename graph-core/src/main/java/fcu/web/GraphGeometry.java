@@ -0,0 +1,96 @@
+package fcu.web;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Vertex positions and edge endpoints in world coordinates, plus the spatial indexes used for culling.
+ * Vertices without a position are stored as NaN and are never drawn. addEdge and removeEdge follow the edge
+ * ids of Graph through an edit without rebuilding the indexes; like the rest of the panel state they are for
+ * the EDT only.
+ */
+public class GraphGeometry {
+    private final int vertexCount;
+    private final float[] x, y;
+    private int edgeCount;
+    private int[] from, to;
+    private final QuadTree vertexIndex;
+    private final QuadTree edgeIndex;
+
+    public GraphGeometry(int vertexCount, float[] x, float[] y, int edgeCount, int[] from, int[] to) {
+        this.vertexCount = vertexCount;
+        this.x = x;
+        this.y = y;
+        this.edgeCount = edgeCount;
+        this.from = from;
+        this.to = to;
+        vertexIndex = QuadTree.forPoints(x, y, vertexCount);
+        edgeIndex = QuadTree.forSegments(x, y, vertexCount, from, to, edgeCount);
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public float getX(int v) {
+        return x[v];
+    }
+
+    public float getY(int v) {
+        return y[v];
+    }
+
+    public int getFrom(int edge) {
+        return from[edge];
+    }
+
+    public int getTo(int edge) {
+        return to[edge];
+    }
+
+    public boolean hasPosition(int v) {
+        return !Float.isNaN(x[v]) && !Float.isNaN(y[v]);
+    }
+
+    /** Appends edge u-v under the next id, as Graph.addEdge does. */
+    public void addEdge(int u, int v) {
+        if (edgeCount == from.length) {
+            from = Arrays.copyOf(from, Math.max(4, edgeCount * 2));
+            to = Arrays.copyOf(to, from.length);
+        }
+        from[edgeCount] = u;
+        to[edgeCount] = v;
+        indexEdge(edgeCount++);
+    }
+
+    /** Drops edge id the way Graph.removeEdge does: the last edge moves into the freed id. */
+    public void removeEdge(int id) {
+        int last = edgeCount - 1;
+        edgeIndex.remove(id);
+        if (id != last) {
+            edgeIndex.remove(last);
+            from[id] = from[last];
+            to[id] = to[last];
+            indexEdge(id);
+        }
+        edgeCount--;
+    }
+
+    private void indexEdge(int e) {
+        float x1 = x[from[e]], y1 = y[from[e]], x2 = x[to[e]], y2 = y[to[e]];
+        if (Float.isNaN(x1) || Float.isNaN(y1) || Float.isNaN(x2) || Float.isNaN(y2)) return;
+        edgeIndex.insert(e, Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+    }
+
+    public void visibleVertices(float x0, float y0, float x1, float y1, IntConsumer visitor) {
+        vertexIndex.query(x0, y0, x1, y1, visitor);
+    }
+
+    public void visibleEdges(float x0, float y0, float x1, float y1, IntConsumer visitor) {
+        edgeIndex.query(x0, y0, x1, y1, visitor);
+    }
+}
@@ -0,0 +1,365 @@
+package fcu.web;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Binary session file: the graph, the layout positions and the highlight bits, each in its own section.
+ * A header with the vertex and edge counts and a section table come first, so a reader can open the file
+ * and load one section at a time.
+ * <ul>
+ *     <li>GRAPH: per edge in id order, zigzag varints of source - previous source and destination - source,
+ *     then the weight as a varint. Random spanning edges come out at 3-5 bytes instead of 12.</li>
+ *     <li>LAYOUT: bounding box, then each coordinate quantized to 16 bits inside it (0xFFFF is NaN).</li>
+ *     <li>MARKS: the number of edge and vertex highlight kinds, then one bitset per kind as raw 64-bit words.
+ *     Kinds the reader does not know are skipped.</li>
+ * </ul>
+ * The Reader checks what it decodes against the header counts, so a truncated or corrupt file fails with an
+ * IOException instead of a runtime exception or a graph with edges to nowhere.
+ */
+public final class GraphSnapshot {
+    public enum Section { GRAPH, LAYOUT, MARKS }
+
+    private static final int MAGIC = 0x47535350; // "GSSP"
+    private static final short VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int SECTION_ENTRY_BYTES = 20;
+    private static final int QUANTIZED_MAX = 0xFFFE;
+    private static final int QUANTIZED_NAN = 0xFFFF;
+
+    private GraphSnapshot() {
+    }
+
+    /**
+     * Writes graph, positions (null for none) and marks to path. The file is written next to path and moved
+     * over it at the end, so an interrupted save leaves the previous snapshot intact. The arguments must not
+     * change while this runs; callers on the EDT pass copies.
+     */
+    public static void write(Path path, Graph graph, float[] x, float[] y, HighlightModel marks) throws IOException {
+        Metrics.Phase phase = Metrics.phase("snapshot.write");
+        long start = phase.start();
+        Section[] sections = x != null ? Section.values() : new Section[]{Section.GRAPH, Section.MARKS};
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long tableEnd = HEADER_BYTES + (long) sections.length * SECTION_ENTRY_BYTES;
+            long[] offsets = new long[sections.length];
+            long[] lengths = new long[sections.length];
+            Encoder out = new Encoder(channel, tableEnd);
+            for (int i = 0; i < sections.length; i++) {
+                offsets[i] = out.position();
+                switch (sections[i]) {
+                    case GRAPH -> writeGraph(out, graph);
+                    case LAYOUT -> writeLayout(out, graph.getVertexCount(), x, y);
+                    case MARKS -> writeMarks(out, marks);
+                }
+                lengths[i] = out.position() - offsets[i];
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate((int) tableEnd).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) sections.length);
+            header.putInt(graph.getVertexCount()).putInt(graph.getEdgeCount());
+            for (int i = 0; i < sections.length; i++) {
+                header.putInt(sections[i].ordinal()).putLong(offsets[i]).putLong(lengths[i]);
+            }
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) channel.write(header);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        phase.stop(start);
+    }
+
+    public static Reader open(Path path) throws IOException {
+        return new Reader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    private static void writeGraph(Encoder out, Graph graph) throws IOException {
+        int previous = 0;
+        for (Graph.Edge edge : graph.getEdges()) {
+            out.varint(zigzag(edge.source - previous));
+            out.varint(zigzag(edge.destination - edge.source));
+            out.varint(edge.weight);
+            previous = edge.source;
+        }
+    }
+
+    private static void writeLayout(Encoder out, int n, float[] x, float[] y) throws IOException {
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (Float.isNaN(x[i]) || Float.isNaN(y[i])) continue;
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        if (minX > maxX) {
+            minX = maxX = minY = maxY = 0;
+        }
+        out.putFloat(minX);
+        out.putFloat(minY);
+        out.putFloat(maxX);
+        out.putFloat(maxY);
+        float scaleX = maxX > minX ? QUANTIZED_MAX / (maxX - minX) : 0;
+        float scaleY = maxY > minY ? QUANTIZED_MAX / (maxY - minY) : 0;
+        for (int i = 0; i < n; i++) {
+            out.putShort(quantize(x[i], minX, scaleX));
+            out.putShort(quantize(y[i], minY, scaleY));
+        }
+    }
+
+    private static void writeMarks(Encoder out, HighlightModel marks) throws IOException {
+        out.varint(HighlightModel.EdgeMark.values().length);
+        out.varint(HighlightModel.VertexMark.values().length);
+        for (HighlightModel.EdgeMark mark : HighlightModel.EdgeMark.values()) {
+            writeBits(out, marks.bits(mark));
+        }
+        for (HighlightModel.VertexMark mark : HighlightModel.VertexMark.values()) {
+            writeBits(out, marks.bits(mark));
+        }
+    }
+
+    private static void writeBits(Encoder out, BitSet bits) throws IOException {
+        long[] words = bits.toLongArray();
+        out.varint(words.length);
+        for (long word : words) out.putLong(word);
+    }
+
+    private static int quantize(float value, float min, float scale) {
+        if (Float.isNaN(value)) return QUANTIZED_NAN;
+        return Math.round((value - min) * scale);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /** Open snapshot; each read maps only the section it needs. Not thread-safe. */
+    public static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final int vertexCount;
+        private final int edgeCount;
+        private final Map<Section, long[]> sections = new EnumMap<>(Section.class);
+
+        private Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            try {
+                ByteBuffer header = read(0, HEADER_BYTES);
+                if (header.getInt() != MAGIC) throw new IOException("Not a graph snapshot");
+                short version = header.getShort();
+                if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+                int count = header.getShort();
+                vertexCount = header.getInt();
+                edgeCount = header.getInt();
+                if (count < 0 || vertexCount < 0 || edgeCount < 0) throw new IOException("Corrupt snapshot header");
+                ByteBuffer table = read(HEADER_BYTES, count * SECTION_ENTRY_BYTES);
+                for (int i = 0; i < count; i++) {
+                    int id = table.getInt();
+                    long offset = table.getLong();
+                    long length = table.getLong();
+                    if (offset < 0 || length < 0 || offset + length > channel.size()) {
+                        throw new IOException("Truncated snapshot");
+                    }
+                    if (id >= 0 && id < Section.values().length) {
+                        sections.put(Section.values()[id], new long[]{offset, length});
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e instanceof IOException io ? io : new IOException("Corrupt snapshot header", e);
+            }
+        }
+
+        public int getVertexCount() {
+            return vertexCount;
+        }
+
+        public int getEdgeCount() {
+            return edgeCount;
+        }
+
+        public boolean has(Section section) {
+            return sections.containsKey(section);
+        }
+
+        public Graph readGraph() throws IOException {
+            Metrics.Phase phase = Metrics.phase("snapshot.read_graph");
+            long start = phase.start();
+            ByteBuffer in = map(Section.GRAPH);
+            Graph graph = new Graph(vertexCount);
+            int source = 0;
+            try {
+                for (int i = 0; i < edgeCount; i++) {
+                    source += unzigzag(varint(in));
+                    int destination = source + unzigzag(varint(in));
+                    int weight = varint(in);
+                    if (source < 0 || source >= vertexCount || destination < 0 || destination >= vertexCount
+                            || weight <= 0) {
+                        throw new IOException("Corrupt snapshot: edge " + i + " is " + source + "-" + destination
+                                + " with weight " + weight + " in a graph of " + vertexCount + " vertices");
+                    }
+                    graph.addEdge(source, destination, weight);
+                }
+            } catch (BufferUnderflowException e) {
+                throw corrupt(Section.GRAPH, e);
+            }
+            phase.stop(start);
+            return graph;
+        }
+
+        /** Fills x and y with the saved positions; returns false if the snapshot has none. */
+        public boolean readLayout(float[] x, float[] y) throws IOException {
+            if (!has(Section.LAYOUT)) return false;
+            ByteBuffer in = map(Section.LAYOUT);
+            try {
+                float minX = in.getFloat(), minY = in.getFloat();
+                float maxX = in.getFloat(), maxY = in.getFloat();
+                float stepX = (maxX - minX) / QUANTIZED_MAX;
+                float stepY = (maxY - minY) / QUANTIZED_MAX;
+                for (int i = 0; i < vertexCount; i++) {
+                    int qx = in.getShort() & 0xFFFF;
+                    int qy = in.getShort() & 0xFFFF;
+                    x[i] = qx == QUANTIZED_NAN ? Float.NaN : minX + qx * stepX;
+                    y[i] = qy == QUANTIZED_NAN ? Float.NaN : minY + qy * stepY;
+                }
+            } catch (BufferUnderflowException e) {
+                throw corrupt(Section.LAYOUT, e);
+            }
+            return true;
+        }
+
+        public HighlightModel readMarks() throws IOException {
+            HighlightModel marks = new HighlightModel();
+            if (!has(Section.MARKS)) return marks;
+            ByteBuffer in = map(Section.MARKS);
+            try {
+                int edgeKinds = varint(in);
+                int vertexKinds = varint(in);
+                HighlightModel.EdgeMark[] edgeMarks = HighlightModel.EdgeMark.values();
+                HighlightModel.VertexMark[] vertexMarks = HighlightModel.VertexMark.values();
+                for (int i = 0; i < edgeKinds; i++) {
+                    BitSet bits = readBits(in, edgeCount);
+                    if (i < edgeMarks.length) marks.bits(edgeMarks[i]).or(bits);
+                }
+                for (int i = 0; i < vertexKinds; i++) {
+                    BitSet bits = readBits(in, vertexCount);
+                    if (i < vertexMarks.length) marks.bits(vertexMarks[i]).or(bits);
+                }
+            } catch (BufferUnderflowException e) {
+                throw corrupt(Section.MARKS, e);
+            }
+            return marks;
+        }
+
+        // Bits at or past limit would mark edges or vertices the graph does not have
+        private static BitSet readBits(ByteBuffer in, int limit) throws IOException {
+            int count = varint(in);
+            if (count < 0 || count > in.remaining() / Long.BYTES) throw new BufferUnderflowException();
+            long[] words = new long[count];
+            for (int i = 0; i < words.length; i++) words[i] = in.getLong();
+            BitSet bits = BitSet.valueOf(words);
+            if (bits.length() > limit) throw new IOException("Corrupt snapshot: marks past the end of the graph");
+            return bits;
+        }
+
+        private static IOException corrupt(Section section, BufferUnderflowException e) {
+            return new IOException("Corrupt snapshot: " + section + " section is truncated", e);
+        }
+
+        private ByteBuffer map(Section section) throws IOException {
+            long[] entry = sections.get(section);
+            if (entry == null) throw new IOException("Snapshot has no " + section + " section");
+            return channel.map(FileChannel.MapMode.READ_ONLY, entry[0], entry[1]).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private ByteBuffer read(long offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) throw new IOException("Truncated snapshot");
+            }
+            return buffer.flip();
+        }
+
+        private static int varint(ByteBuffer in) {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = in.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // Buffered little-endian writer over the channel; position() counts bytes written so far
+    private static final class Encoder {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private long flushed;
+
+        Encoder(FileChannel channel, long start) throws IOException {
+            this.channel = channel;
+            this.flushed = start;
+            channel.position(start);
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void varint(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putShort(int value) throws IOException {
+            ensure(2);
+            buffer.putShort((short) value);
+        }
+
+        void putFloat(float value) throws IOException {
+            ensure(4);
+            buffer.putFloat(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) flushed += channel.write(buffer);
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package fcu.web;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Highlight state shared by the graph panels: one bit per edge id or vertex per kind,
+ * so painting checks membership in O(1) and the whole model takes O(V + E) bits.
+ */
+public class HighlightModel {
+    public enum EdgeMark { MST, PATH, SEARCH_TREE }
+
+    public enum VertexMark { CRITICAL, PATH, SEPARATOR }
+
+    private final BitSet[] edges = new BitSet[EdgeMark.values().length];
+    private final BitSet[] vertices = new BitSet[VertexMark.values().length];
+
+    public HighlightModel() {
+        for (int i = 0; i < edges.length; i++) edges[i] = new BitSet();
+        for (int i = 0; i < vertices.length; i++) vertices[i] = new BitSet();
+    }
+
+    public void clear() {
+        for (BitSet bits : edges) bits.clear();
+        for (BitSet bits : vertices) bits.clear();
+    }
+
+    public void clear(EdgeMark mark) {
+        edges[mark.ordinal()].clear();
+    }
+
+    public void clear(VertexMark mark) {
+        vertices[mark.ordinal()].clear();
+    }
+
+    public void mark(EdgeMark mark, int edge) {
+        if (edge >= 0) edges[mark.ordinal()].set(edge);
+    }
+
+    public void mark(VertexMark mark, int vertex) {
+        if (vertex >= 0) vertices[mark.ordinal()].set(vertex);
+    }
+
+    public boolean has(EdgeMark mark, int edge) {
+        return edge >= 0 && edges[mark.ordinal()].get(edge);
+    }
+
+    public boolean has(VertexMark mark, int vertex) {
+        return vertex >= 0 && vertices[mark.ordinal()].get(vertex);
+    }
+
+    // Iteration in the BitSet style: for (int e = next(m, 0); e >= 0; e = next(m, e + 1))
+    public int next(EdgeMark mark, int from) {
+        return edges[mark.ordinal()].nextSetBit(from);
+    }
+
+    public int next(VertexMark mark, int from) {
+        return vertices[mark.ordinal()].nextSetBit(from);
+    }
+
+    public boolean isEmpty(EdgeMark mark) {
+        return edges[mark.ordinal()].isEmpty();
+    }
+
+    public boolean isEmpty(VertexMark mark) {
+        return vertices[mark.ordinal()].isEmpty();
+    }
+
+    public int count(VertexMark mark) {
+        return vertices[mark.ordinal()].cardinality();
+    }
+
+    public HighlightModel copy() {
+        HighlightModel copy = new HighlightModel();
+        copy.set(this);
+        return copy;
+    }
+
+    // Replaces every mark with the ones in other
+    public void set(HighlightModel other) {
+        clear();
+        for (int i = 0; i < edges.length; i++) edges[i].or(other.edges[i]);
+        for (int i = 0; i < vertices.length; i++) vertices[i].or(other.vertices[i]);
+    }
+
+    // Live bits, for GraphSnapshot
+    BitSet bits(EdgeMark mark) {
+        return edges[mark.ordinal()];
+    }
+
+    BitSet bits(VertexMark mark) {
+        return vertices[mark.ordinal()];
+    }
+
+    // Marks the path vertices and only the edges between consecutive path vertices
+    public void markPath(List<Integer> path, IntBinaryOperator edgeId) {
+        clear(EdgeMark.PATH);
+        clear(VertexMark.PATH);
+        for (int i = 0; i < path.size(); i++) {
+            mark(VertexMark.PATH, path.get(i));
+            if (i > 0) {
+                mark(EdgeMark.PATH, edgeId.applyAsInt(path.get(i - 1), path.get(i)));
+            }
+        }
+    }
+}
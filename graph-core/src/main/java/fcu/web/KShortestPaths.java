@@ -0,0 +1,151 @@
+package fcu.web;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Yen's k shortest loopless paths over a compressed adjacency.
+ * The spur searches of one round are independent, so they run in parallel; each borrows a DijkstraSearch whose
+ * arrays are allocated once and reset by generation stamps instead of being refilled.
+ */
+public class KShortestPaths {
+    private final CompressedAdjacency adjacency;
+    private final ConcurrentLinkedQueue<DijkstraSearch> searches = new ConcurrentLinkedQueue<>();
+
+    public KShortestPaths(CompressedAdjacency adjacency) {
+        this.adjacency = adjacency;
+    }
+
+    /** A path as its vertices from source to target, with the cost of every prefix. */
+    public static final class Path implements Comparable<Path> {
+        private final int[] vertices;
+        private final long[] prefixCost;
+
+        Path(int[] vertices, long[] prefixCost) {
+            this.vertices = vertices;
+            this.prefixCost = prefixCost;
+        }
+
+        public int length() {
+            return vertices.length;
+        }
+
+        public int vertex(int i) {
+            return vertices[i];
+        }
+
+        public long cost() {
+            return prefixCost[prefixCost.length - 1];
+        }
+
+        public int[] vertices() {
+            return vertices.clone();
+        }
+
+        @Override
+        public int compareTo(Path other) {
+            int c = Long.compare(cost(), other.cost());
+            return c != 0 ? c : Integer.compare(vertices.length, other.vertices.length);
+        }
+    }
+
+    /** Up to k paths from source to target in increasing cost; empty if target is unreachable. */
+    public List<Path> find(int source, int target, int k) {
+        Metrics.Phase phase = Metrics.phase("yen");
+        GraphEvents.Span event = GraphEvents.algorithm("yen", "search", adjacency.vertexCount(), adjacency.edgeCount());
+        long start = phase.start();
+        List<Path> result = new ArrayList<>();
+        DijkstraSearch first = borrow();
+        Path shortest = spur(first, source, target, null, 0, new int[0], 0);
+        searches.add(first);
+        if (shortest == null || k <= 0) {
+            phase.stop(start);
+            event.commit();
+            return result;
+        }
+        result.add(shortest);
+        PriorityQueue<Path> candidates = new PriorityQueue<>();
+        Set<List<Integer>> seen = new HashSet<>();
+        seen.add(key(shortest));
+        long spurSearches = 0;
+
+        while (result.size() < k) {
+            Path previous = result.get(result.size() - 1);
+            List<Path> accepted = List.copyOf(result);
+            Path[] spurs = new Path[previous.length() - 1];
+            IntStream.range(0, spurs.length).parallel().forEach(i -> {
+                // Edges out of the spur vertex already used by an accepted path with the same root
+                int[] bannedEdges = new int[accepted.size()];
+                int bannedCount = 0;
+                for (Path path : accepted) {
+                    if (path.length() > i + 1 && sameRoot(path, previous, i)) {
+                        bannedEdges[bannedCount++] = path.vertex(i + 1);
+                    }
+                }
+                DijkstraSearch search = borrow();
+                spurs[i] = spur(search, previous.vertex(i), target, previous, i, bannedEdges, bannedCount);
+                searches.add(search);
+            });
+            spurSearches += spurs.length;
+            for (Path spur : spurs) {
+                if (spur != null && seen.add(key(spur))) candidates.add(spur);
+            }
+            if (candidates.isEmpty()) break;
+            result.add(candidates.poll());
+        }
+        phase.stop(start);
+        event.commit();
+        Metrics.counter("yen.spur_searches").add(spurSearches);
+        return result;
+    }
+
+    private DijkstraSearch borrow() {
+        DijkstraSearch search = searches.poll();
+        return search != null ? search : new DijkstraSearch(adjacency);
+    }
+
+    private static boolean sameRoot(Path a, Path b, int spurIndex) {
+        for (int j = 0; j <= spurIndex; j++) {
+            if (a.vertex(j) != b.vertex(j)) return false;
+        }
+        return true;
+    }
+
+    private static List<Integer> key(Path path) {
+        List<Integer> key = new ArrayList<>(path.length());
+        for (int v : path.vertices) key.add(v);
+        return key;
+    }
+
+    /**
+     * Shortest path from spur to target that avoids root's vertices before spurIndex and the edges from spur
+     * to bannedEdges, returned with those root vertices in front. root is null for a plain search.
+     */
+    private static Path spur(DijkstraSearch search, int spur, int target, Path root, int spurIndex,
+                             int[] bannedEdges, int bannedCount) {
+        search.reset();
+        for (int j = 0; root != null && j < spurIndex; j++) search.ban(root.vertex(j));
+        search.banEdges(spur, bannedEdges, bannedCount);
+        search.run(spur, new int[]{target}, 1);
+        if (!search.reached(target)) return null;
+
+        int[] spurPath = search.path(target);
+        int[] vertices = new int[spurIndex + spurPath.length];
+        long[] prefixCost = new long[vertices.length];
+        long base = root != null ? root.prefixCost[spurIndex] : 0;
+        for (int j = 0; j < spurIndex; j++) {
+            vertices[j] = root.vertex(j);
+            prefixCost[j] = root.prefixCost[j];
+        }
+        for (int j = 0; j < spurPath.length; j++) {
+            vertices[spurIndex + j] = spurPath[j];
+            prefixCost[spurIndex + j] = base + search.distance(spurPath[j]);
+        }
+        return new Path(vertices, prefixCost);
+    }
+}
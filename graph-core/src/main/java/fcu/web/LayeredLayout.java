@@ -0,0 +1,133 @@
+package fcu.web;
+
+import java.util.Arrays;
+
+/**
+ * Layered (BFS depth) layout of every connected component in O(V + E).
+ * Components are placed side by side; within a layer, vertices are ordered by one downward and one
+ * upward barycenter sweep to cut edge crossings. The barycenters are bucketed at half-position
+ * resolution, so each sweep is a counting sort rather than a comparison sort.
+ */
+public class LayeredLayout implements LayoutEngine {
+    private float layerSpacing = 80;
+    private float vertexSpacing = 40;
+
+    public LayeredLayout() {
+    }
+
+    public LayeredLayout setLayerSpacing(float layerSpacing) {
+        this.layerSpacing = layerSpacing;
+        return this;
+    }
+
+    public LayeredLayout setVertexSpacing(float vertexSpacing) {
+        this.vertexSpacing = vertexSpacing;
+        return this;
+    }
+
+    @Override
+    public void layout(AdjacencyIndex graph, float[] x, float[] y) {
+        Metrics.Phase phase = Metrics.phase("layered");
+        long start = phase.start();
+        int n = graph.vertexCount();
+        int[] layer = new int[n];
+        int[] order = new int[n];      // vertices grouped by component, then by layer
+        int[] position = new int[n];   // index of the vertex inside its layer
+        int[] layerStart = new int[n + 1];
+        Arrays.fill(layer, -1);
+
+        int[] keys = new int[n];
+        int[] counts = new int[2 * n + 2];
+        int[] scratch = new int[n];
+
+        int head = 0;
+        float offsetX = 0;
+        for (int root = 0; root < n; root++) {
+            if (layer[root] >= 0) continue;
+
+            // BFS over one component; order[componentStart..head) ends up sorted by layer
+            int componentStart = head;
+            int tail = head;
+            order[tail++] = root;
+            layer[root] = 0;
+            while (head < tail) {
+                int v = order[head++];
+                for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                    int u = graph.neighbor(i);
+                    if (layer[u] < 0) {
+                        layer[u] = layer[v] + 1;
+                        order[tail++] = u;
+                    }
+                }
+            }
+
+            // Layer boundaries inside this component: layers [0, layers), layer L is order[layerStart[L]..layerStart[L+1])
+            int layers = layer[order[tail - 1]] + 1;
+            int widest = 0;
+            for (int L = 0, i = componentStart; L < layers; L++) {
+                layerStart[L] = i;
+                while (i < tail && layer[order[i]] == L) {
+                    position[order[i]] = i - layerStart[L];
+                    i++;
+                }
+                layerStart[L + 1] = i;
+                widest = Math.max(widest, i - layerStart[L]);
+            }
+
+            for (int L = 1; L < layers; L++) {
+                sortByBarycenter(graph, order, layerStart[L], layerStart[L + 1], L - 1, layer, position, keys, counts, scratch);
+            }
+            for (int L = layers - 2; L >= 0; L--) {
+                sortByBarycenter(graph, order, layerStart[L], layerStart[L + 1], L + 1, layer, position, keys, counts, scratch);
+            }
+
+            for (int L = 0; L < layers; L++) {
+                int size = layerStart[L + 1] - layerStart[L];
+                float indent = (widest - size) / 2f;
+                for (int i = layerStart[L]; i < layerStart[L + 1]; i++) {
+                    int v = order[i];
+                    x[v] = offsetX + (position[v] + indent) * vertexSpacing;
+                    y[v] = L * layerSpacing;
+                }
+            }
+            offsetX += (widest + 1) * vertexSpacing;
+        }
+        phase.stop(start);
+    }
+
+    // Stable counting sort of order[from..to) by twice the mean position of neighbors in the reference layer
+    private static void sortByBarycenter(AdjacencyIndex graph, int[] order, int from, int to, int referenceLayer,
+                                         int[] layer, int[] position, int[] keys, int[] counts, int[] scratch) {
+        int maxKey = 0;
+        for (int i = from; i < to; i++) {
+            int v = order[i];
+            long sum = 0;
+            int count = 0;
+            for (int s = graph.start(v), end = graph.end(v); s < end; s++) {
+                int u = graph.neighbor(s);
+                if (layer[u] == referenceLayer) {
+                    sum += position[u];
+                    count++;
+                }
+            }
+            // Vertices without neighbors there keep their current slot
+            int key = count > 0 ? (int) ((2 * sum + count / 2) / count) : 2 * position[v];
+            keys[i - from] = key;
+            maxKey = Math.max(maxKey, key);
+        }
+        Arrays.fill(counts, 0, maxKey + 2, 0);
+        for (int i = 0; i < to - from; i++) {
+            counts[keys[i] + 1]++;
+        }
+        for (int k = 0; k <= maxKey; k++) {
+            counts[k + 1] += counts[k];
+        }
+        for (int i = from; i < to; i++) {
+            scratch[counts[keys[i - from]]++] = order[i];
+        }
+        for (int i = 0; i < to - from; i++) {
+            order[from + i] = scratch[i];
+            position[scratch[i]] = i;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package fcu.web;
+
+/**
+ * Computes vertex positions into primitive coordinate arrays.
+ * x and y are read as the starting positions (NaN means unplaced) and overwritten with the result,
+ * in the engine's own units; use Layouts.fit to map them onto a panel.
+ */
+public interface LayoutEngine {
+    void layout(AdjacencyIndex graph, float[] x, float[] y);
+
+    /**
+     * Same as layout, reporting intermediate positions to progress whenever they form a complete picture.
+     * Engines that converge in one pass only report the result.
+     */
+    default void layout(AdjacencyIndex graph, float[] x, float[] y, Progress progress) {
+        layout(graph, x, y);
+        progress.publish(x, y);
+    }
+
+    interface Progress {
+        Progress NONE = (x, y) -> true;
+
+        // Called on the layout thread; the arrays are only valid during the call. Returning false stops the layout
+        boolean publish(float[] x, float[] y);
+    }
+}
@@ -0,0 +1,70 @@
+package fcu.web;
+
+import java.util.Random;
+
+/**
+ * The simple placements used by the visualizers, written into float coordinate arrays.
+ */
+public final class Layouts {
+    private Layouts() {
+    }
+
+    public static void grid(int count, float[] x, float[] y) {
+        int cols = (int) Math.ceil(Math.sqrt(count));
+        for (int i = 0; i < count; i++) {
+            x[i] = i % cols;
+            y[i] = i / cols;
+        }
+    }
+
+    public static void circle(int count, float centerX, float centerY, float radius, float[] x, float[] y) {
+        for (int i = 0; i < count; i++) {
+            double angle = 2 * Math.PI * i / count;
+            x[i] = centerX + (int) (radius * Math.cos(angle));
+            y[i] = centerY + (int) (radius * Math.sin(angle));
+        }
+    }
+
+    public static void random(int count, float width, float height, float padding, Random random, float[] x, float[] y) {
+        float spanX = Math.max(1, width - 2 * padding);
+        float spanY = Math.max(1, height - 2 * padding);
+        for (int i = 0; i < count; i++) {
+            x[i] = padding + random.nextInt((int) spanX);
+            y[i] = padding + random.nextInt((int) spanY);
+        }
+    }
+
+    public static void diagonal(int count, float width, float height, float[] x, float[] y) {
+        int xSpacing = (int) (width / (count + 1));
+        int ySpacing = (int) (height / (count + 1));
+        for (int i = 0; i < count; i++) {
+            x[i] = (i + 1) * xSpacing;
+            y[i] = (i + 1) * ySpacing;
+        }
+    }
+
+    // Uniformly scales and centers the placed vertices into the rectangle, keeping the aspect ratio
+    public static void fit(int count, float[] x, float[] y, float width, float height, float margin) {
+        float x0 = Float.MAX_VALUE, y0 = Float.MAX_VALUE, x1 = -Float.MAX_VALUE, y1 = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            if (Float.isNaN(x[i]) || Float.isNaN(y[i])) continue;
+            x0 = Math.min(x0, x[i]);
+            y0 = Math.min(y0, y[i]);
+            x1 = Math.max(x1, x[i]);
+            y1 = Math.max(y1, y[i]);
+        }
+        if (x0 > x1) return;
+        float availableWidth = Math.max(1, width - 2 * margin);
+        float availableHeight = Math.max(1, height - 2 * margin);
+        float spanX = x1 - x0, spanY = y1 - y0;
+        float scale = Math.min(spanX > 0 ? availableWidth / spanX : Float.MAX_VALUE,
+                spanY > 0 ? availableHeight / spanY : Float.MAX_VALUE);
+        if (scale == Float.MAX_VALUE) scale = 1;
+        float offsetX = margin + (availableWidth - spanX * scale) / 2;
+        float offsetY = margin + (availableHeight - spanY * scale) / 2;
+        for (int i = 0; i < count; i++) {
+            x[i] = (x[i] - x0) * scale + offsetX;
+            y[i] = (y[i] - y0) * scale + offsetY;
+        }
+    }
+}
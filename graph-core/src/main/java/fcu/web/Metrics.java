@@ -0,0 +1,322 @@
+package fcu.web;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide algorithm counters and phase timers.
+ * Both are LongAdder based, so threads update their own cells and never contend; algorithms should still
+ * count into a local and add once per run rather than once per edge. Names are dotted ("dijkstra.pops").
+ */
+public final class Metrics {
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Phase> PHASES = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public static Phase phase(String name) {
+        return PHASES.computeIfAbsent(name, n -> new Phase());
+    }
+
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        Counter() {
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /** Call count, total and maximum duration of one algorithm phase. */
+    public static final class Phase {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Phase() {
+        }
+
+        // long start = phase.start(); ... phase.stop(start);
+        public long start() {
+            return System.nanoTime();
+        }
+
+        public long stop(long start) {
+            long nanos = System.nanoTime() - start;
+            record(nanos);
+            return nanos;
+        }
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+
+    /**
+     * Latency distribution over fixed 1-2-5 buckets from 10 microseconds to 50 seconds, plus an overflow bucket.
+     * Percentiles are interpolated inside a bucket, so they are accurate to about a bucket's width.
+     */
+    public static final class Histogram {
+        private static final long[] BOUNDS = bounds();
+        private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        private static long[] bounds() {
+            long[] bounds = new long[21];
+            long decade = 10_000;
+            for (int i = 0; i < bounds.length; i += 3, decade *= 10) {
+                bounds[i] = decade;
+                bounds[i + 1] = 2 * decade;
+                bounds[i + 2] = 5 * decade;
+            }
+            return bounds;
+        }
+
+        public void record(long nanos) {
+            int bucket = 0;
+            while (bucket < BOUNDS.length && nanos > BOUNDS[bucket]) bucket++;
+            buckets[bucket].increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (LongAdder bucket : buckets) count += bucket.sum();
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /** Estimated latency at quantile q (0.5 for the median), 0 when nothing was recorded. */
+        public long percentileNanos(double q) {
+            long[] counts = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) total += counts[i] = buckets[i].sum();
+            if (total == 0) return 0;
+            double rank = q * total;
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0 && seen + counts[i] >= rank) {
+                    long low = i == 0 ? 0 : BOUNDS[i - 1];
+                    long high = i < BOUNDS.length ? BOUNDS[i] : Math.max(low, getMaxNanos());
+                    return Math.min(getMaxNanos(), low + (long) ((high - low) * ((rank - seen) / counts[i])));
+                }
+                seen += counts[i];
+            }
+            return getMaxNanos();
+        }
+    }
+
+    public static Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> values.put(name, counter.get()));
+        return values;
+    }
+
+    public static Map<String, Phase> phases() {
+        return PHASES;
+    }
+
+    public static Map<String, Histogram> histograms() {
+        return HISTOGRAMS;
+    }
+
+    // Sums are not atomic across cells, so a reset racing with updates may keep a few of them
+    public static void reset() {
+        COUNTERS.values().forEach(counter -> counter.value.reset());
+        PHASES.values().forEach(phase -> {
+            phase.count.reset();
+            phase.totalNanos.reset();
+            phase.maxNanos.reset();
+        });
+        HISTOGRAMS.values().forEach(histogram -> {
+            for (LongAdder bucket : histogram.buckets) bucket.reset();
+            histogram.totalNanos.reset();
+            histogram.maxNanos.reset();
+        });
+    }
+
+    /**
+     * Prometheus text exposition format: counters as graph_<name>_total, phases as summaries in seconds
+     * plus a _seconds_max gauge, histograms as cumulative _bucket series in seconds.
+     */
+    public static void writeText(Writer out) throws IOException {
+        for (Map.Entry<String, Counter> entry : COUNTERS.entrySet()) {
+            String name = "graph_" + sanitize(entry.getKey()) + "_total";
+            out.write("# TYPE " + name + " counter\n");
+            out.write(name + " " + entry.getValue().get() + "\n");
+        }
+        for (Map.Entry<String, Phase> entry : PHASES.entrySet()) {
+            String name = "graph_" + sanitize(entry.getKey()) + "_seconds";
+            Phase phase = entry.getValue();
+            out.write("# TYPE " + name + " summary\n");
+            out.write(name + "_count " + phase.getCount() + "\n");
+            out.write(name + "_sum " + seconds(phase.getTotalNanos()) + "\n");
+            out.write("# TYPE " + name + "_max gauge\n");
+            out.write(name + "_max " + seconds(phase.getMaxNanos()) + "\n");
+        }
+        for (Map.Entry<String, Histogram> entry : HISTOGRAMS.entrySet()) {
+            String name = "graph_" + sanitize(entry.getKey()) + "_seconds";
+            Histogram histogram = entry.getValue();
+            out.write("# TYPE " + name + " histogram\n");
+            long cumulative = 0;
+            for (int i = 0; i < histogram.buckets.length; i++) {
+                cumulative += histogram.buckets[i].sum();
+                String le = i < Histogram.BOUNDS.length ? seconds(Histogram.BOUNDS[i]) : "+Inf";
+                out.write(name + "_bucket{le=\"" + le + "\"} " + cumulative + "\n");
+            }
+            out.write(name + "_count " + cumulative + "\n");
+            out.write(name + "_sum " + seconds(histogram.getTotalNanos()) + "\n");
+        }
+        out.flush();
+    }
+
+    /**
+     * Rewrites file with the text export every period, for a scraper that reads a text file directory
+     * (node_exporter's textfile collector). The file is replaced atomically, so readers never see half of it.
+     */
+    public static void exportTextFile(Path file, long period, TimeUnit unit) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writeText(out);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("Metrics export to " + file + " failed: " + e.getMessage());
+            }
+        }, 0, period, unit);
+    }
+
+    /** Registers the MXBean as fcu.web:type=GraphMetrics on the platform MBean server; repeated calls are no-ops. */
+    public static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MBean(), new ObjectName(MetricsMXBean.OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // already registered by another window
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    private static final class MBean implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            return counterValues();
+        }
+
+        @Override
+        public Map<String, Long> getPhaseCounts() {
+            Map<String, Long> values = new TreeMap<>();
+            PHASES.forEach((name, phase) -> values.put(name, phase.getCount()));
+            return values;
+        }
+
+        @Override
+        public Map<String, Long> getPhaseTotalNanos() {
+            Map<String, Long> values = new TreeMap<>();
+            PHASES.forEach((name, phase) -> values.put(name, phase.getTotalNanos()));
+            return values;
+        }
+
+        @Override
+        public Map<String, Long> getPhaseMaxNanos() {
+            Map<String, Long> values = new TreeMap<>();
+            PHASES.forEach((name, phase) -> values.put(name, phase.getMaxNanos()));
+            return values;
+        }
+
+        @Override
+        public String getText() {
+            StringWriter out = new StringWriter();
+            try {
+                writeText(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return out.toString();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package fcu.web;
+
+import java.util.Map;
+
+/**
+ * JMX view of Metrics (jconsole / VisualVM under fcu.web:type=GraphMetrics).
+ */
+public interface MetricsMXBean {
+    String OBJECT_NAME = "fcu.web:type=GraphMetrics";
+
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getPhaseCounts();
+
+    Map<String, Long> getPhaseTotalNanos();
+
+    Map<String, Long> getPhaseMaxNanos();
+
+    // Same text the scraper export writes
+    String getText();
+
+    void reset();
+}
@@ -0,0 +1,194 @@
+package fcu.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Coarsen-layout-refine driver around ForceDirectedLayout for graphs far too large to converge directly.
+ * Levels are built by visiting vertices in random order and matching each with its lowest-degree unmatched
+ * neighbor (edge weights play no part) until the graph is small, the coarsest level gets a full layout, and
+ * each finer level starts from its parent's position and only needs a short refinement.
+ */
+public class MultilevelLayout implements LayoutEngine {
+    private static final int COARSEST_SIZE = 100;
+    // Stop coarsening when a round removes less than this fraction of the vertices
+    private static final double MIN_SHRINK = 0.1;
+    // Levels larger than this get proportionally fewer refinement iterations; they start close to converged
+    private static final int FULL_REFINE_SIZE = 10_000;
+    private static final int MIN_REFINE_ITERATIONS = 8;
+
+    private int coarsestIterations = 300;
+    private int refineIterations = 40;
+    private long seed = 42;
+
+    public MultilevelLayout() {
+    }
+
+    public MultilevelLayout setCoarsestIterations(int iterations) {
+        this.coarsestIterations = iterations;
+        return this;
+    }
+
+    public MultilevelLayout setRefineIterations(int iterations) {
+        this.refineIterations = iterations;
+        return this;
+    }
+
+    public MultilevelLayout setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    @Override
+    public void layout(AdjacencyIndex graph, float[] x, float[] y) {
+        layout(graph, x, y, Progress.NONE);
+    }
+
+    // Coarse levels are reported projected onto the input graph, so a rough picture shows up long before the end
+    @Override
+    public void layout(AdjacencyIndex graph, float[] x, float[] y, Progress progress) {
+        Metrics.Phase coarsenPhase = Metrics.phase("multilevel.coarsen");
+        long start = coarsenPhase.start();
+        Random random = new Random(seed);
+        List<AdjacencyIndex> levels = new ArrayList<>();
+        List<int[]> parents = new ArrayList<>();
+        levels.add(graph);
+        AdjacencyIndex current = graph;
+        while (current.vertexCount() > COARSEST_SIZE) {
+            int[] parent = new int[current.vertexCount()];
+            int coarseCount = match(current, parent, random);
+            if (coarseCount > current.vertexCount() * (1 - MIN_SHRINK)) break;
+            current = contract(current, parent, coarseCount);
+            levels.add(current);
+            parents.add(parent);
+        }
+        coarsenPhase.stop(start);
+        Metrics.counter("multilevel.levels").add(levels.size());
+
+        ForceDirectedLayout force = new ForceDirectedLayout().setSeed(seed);
+        float k = force.getIdealEdgeLength();
+
+        // Full layout of the coarsest level
+        int top = levels.size() - 1;
+        AdjacencyIndex coarsest = levels.get(top);
+        force.setIterations(coarsestIterations);
+        if (top == 0) {
+            force.layout(graph, x, y, progress);
+            return;
+        }
+        float[] cx = new float[coarsest.vertexCount()];
+        float[] cy = new float[coarsest.vertexCount()];
+        Arrays.fill(cx, Float.NaN);
+        Arrays.fill(cy, Float.NaN);
+        Metrics.Phase coarsestPhase = Metrics.phase("multilevel.coarsest");
+        start = coarsestPhase.start();
+        force.layout(coarsest, cx, cy);
+        coarsestPhase.stop(start);
+        if (!project(parents, top, cx, cy, x, y, progress)) return;
+
+        // Prolong to each finer level and refine
+        for (int level = top - 1; level >= 0; level--) {
+            AdjacencyIndex fine = levels.get(level);
+            int[] parent = parents.get(level);
+            int n = fine.vertexCount();
+            float[] fx = level == 0 ? x : new float[n];
+            float[] fy = level == 0 ? y : new float[n];
+            // Spread the parent positions so the vertex density per area stays the same
+            float spread = (float) Math.sqrt((double) n / levels.get(level + 1).vertexCount());
+            for (int v = 0; v < n; v++) {
+                int p = parent[v];
+                fx[v] = cx[p] * spread + (random.nextFloat() - 0.5f) * k * 0.5f;
+                fy[v] = cy[p] * spread + (random.nextFloat() - 0.5f) * k * 0.5f;
+            }
+            int iterations = (int) Math.max(MIN_REFINE_ITERATIONS,
+                    refineIterations * Math.min(1.0, Math.sqrt((double) FULL_REFINE_SIZE / n)));
+            Metrics.Phase refinePhase = Metrics.phase("multilevel.refine");
+            start = refinePhase.start();
+            if (level == 0) {
+                force.refine(fine, fx, fy, iterations, k * 2, progress);
+                refinePhase.stop(start);
+                return;
+            }
+            force.refine(fine, fx, fy, iterations, k * 2);
+            refinePhase.stop(start);
+            if (!project(parents, level, fx, fy, x, y, progress)) return;
+            cx = fx;
+            cy = fy;
+        }
+    }
+
+    // Places every input vertex on its ancestor at the given level, scaled to the input graph's density
+    private static boolean project(List<int[]> parents, int level, float[] cx, float[] cy,
+                                   float[] x, float[] y, Progress progress) {
+        int n = parents.get(0).length;
+        float spread = (float) Math.sqrt((double) n / cx.length);
+        for (int v = 0; v < n; v++) {
+            int a = v;
+            for (int l = 0; l < level; l++) {
+                a = parents.get(l)[a];
+            }
+            x[v] = cx[a] * spread;
+            y[v] = cy[a] * spread;
+        }
+        return progress.publish(x, y);
+    }
+
+    // Visits vertices in random order and pairs each with its lowest-degree unmatched neighbor
+    private static int match(AdjacencyIndex graph, int[] parent, Random random) {
+        int n = graph.vertexCount();
+        Arrays.fill(parent, -1);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        int coarseCount = 0;
+        for (int v : order) {
+            if (parent[v] >= 0) continue;
+            int best = -1;
+            for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                int u = graph.neighbor(i);
+                if (u != v && parent[u] < 0 && (best < 0 || graph.degree(u) < graph.degree(best))) {
+                    best = u;
+                }
+            }
+            parent[v] = coarseCount;
+            if (best >= 0) {
+                parent[best] = coarseCount;
+            }
+            coarseCount++;
+        }
+        return coarseCount;
+    }
+
+    // Collapses matched pairs; self-loops and duplicate edges between the same coarse vertices are dropped
+    private static AdjacencyIndex contract(AdjacencyIndex graph, int[] parent, int coarseCount) {
+        int n = graph.vertexCount();
+        EdgeIdMap seen = new EdgeIdMap(Math.max(16, graph.end(n - 1) / 2));
+        int[] from = new int[Math.max(1, graph.end(n - 1) / 2)];
+        int[] to = new int[from.length];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                int u = graph.neighbor(i);
+                if (u < v) continue;
+                int a = parent[v], b = parent[u];
+                if (a == b || seen.contains(a, b)) continue;
+                seen.put(a, b, count);
+                if (count == from.length) {
+                    from = Arrays.copyOf(from, count * 2);
+                    to = Arrays.copyOf(to, count * 2);
+                }
+                from[count] = a;
+                to[count] = b;
+                count++;
+            }
+        }
+        return AdjacencyIndex.build(coarseCount, from, to, count);
+    }
+}
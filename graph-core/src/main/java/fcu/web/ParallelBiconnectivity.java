@@ -0,0 +1,172 @@
+package fcu.web;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Articulation points in the style of Tarjan-Vishkin, without a DFS over the graph:
+ * <ol>
+ *     <li>A spanning forest from parallel unions in a ConcurrentDisjointSet.</li>
+ *     <li>Preorder numbers and subtree sizes from a tour of the forest.</li>
+ *     <li>low/high per vertex: the smallest and largest preorder number reachable from its subtree by one
+ *     non-tree edge. The per-vertex scan over all edges runs in parallel; folding children into parents is a
+ *     linear pass in reverse preorder.</li>
+ *     <li>Tree edges (named by their child vertex) are unioned when they must share a block: the two tree edges
+ *     above the ends of a non-tree edge whose ends are unrelated, and a tree edge with the one above its parent
+ *     when the child's subtree reaches outside the parent's subtree.</li>
+ * </ol>
+ * A vertex is an articulation point when its tree edges fall into more than one block.
+ * The forest and tree work is O(V); the O(E) steps run on the common fork-join pool.
+ */
+public final class ParallelBiconnectivity {
+    private static final int CHUNK = 1 << 12;
+
+    private ParallelBiconnectivity() {
+    }
+
+    public static BitSet articulationPoints(CompressedAdjacency adjacency) {
+        int n = adjacency.vertexCount();
+        int chunks = (n + CHUNK - 1) / CHUNK;
+
+        // 1. Spanning forest; each chunk keeps the edges whose union succeeded
+        ConcurrentDisjointSet sets = new ConcurrentDisjointSet(n);
+        int[][] chunkTreeEdges = new int[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            CompressedAdjacency.Cursor cursor = adjacency.cursor();
+            int[] found = new int[64];
+            int count = 0;
+            for (int u = chunk * CHUNK, end = Math.min(n, u + CHUNK); u < end; u++) {
+                cursor.reset(u);
+                while (cursor.next()) {
+                    int v = cursor.neighbor();
+                    if (v > u && sets.union(u, v)) {
+                        if (count + 2 > found.length) found = Arrays.copyOf(found, found.length * 2);
+                        found[count++] = u;
+                        found[count++] = v;
+                    }
+                }
+            }
+            chunkTreeEdges[chunk] = Arrays.copyOf(found, count);
+        });
+        int[] treeStart = new int[n + 1];
+        for (int[] edges : chunkTreeEdges) {
+            for (int v : edges) treeStart[v + 1]++;
+        }
+        for (int v = 0; v < n; v++) treeStart[v + 1] += treeStart[v];
+        int[] fill = Arrays.copyOf(treeStart, n);
+        int[] tree = new int[treeStart[n]];
+        for (int[] edges : chunkTreeEdges) {
+            for (int i = 0; i < edges.length; i += 2) {
+                tree[fill[edges[i]]++] = edges[i + 1];
+                tree[fill[edges[i + 1]]++] = edges[i];
+            }
+        }
+
+        // 2. Preorder and subtree sizes, each tree rooted at its smallest vertex
+        int[] parent = new int[n];
+        int[] pre = new int[n];
+        int[] size = new int[n];
+        int[] order = new int[n]; // vertex with each preorder number
+        Arrays.fill(pre, -1);
+        int[] stack = new int[n];
+        int counter = 0;
+        for (int root = 0; root < n; root++) {
+            if (pre[root] >= 0) continue;
+            int top = 0;
+            parent[root] = -1;
+            stack[top++] = root;
+            while (top > 0) {
+                int v = stack[--top];
+                pre[v] = counter;
+                order[counter++] = v;
+                for (int i = treeStart[v]; i < treeStart[v + 1]; i++) {
+                    int c = tree[i];
+                    if (c != parent[v]) {
+                        parent[c] = v;
+                        stack[top++] = c;
+                    }
+                }
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int v = order[i];
+            size[v]++;
+            if (parent[v] >= 0) size[parent[v]] += size[v];
+        }
+
+        // 3. low/high from each vertex's own non-tree edges, then folded up the tree
+        int[] low = new int[n];
+        int[] high = new int[n];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            CompressedAdjacency.Cursor cursor = adjacency.cursor();
+            for (int v = chunk * CHUNK, end = Math.min(n, v + CHUNK); v < end; v++) {
+                int lo = pre[v], hi = pre[v];
+                cursor.reset(v);
+                while (cursor.next()) {
+                    int w = cursor.neighbor();
+                    if (w == parent[v] || parent[w] == v) continue;
+                    lo = Math.min(lo, pre[w]);
+                    hi = Math.max(hi, pre[w]);
+                }
+                low[v] = lo;
+                high[v] = hi;
+            }
+        });
+        for (int i = n - 1; i >= 0; i--) {
+            int v = order[i];
+            int p = parent[v];
+            if (p >= 0) {
+                low[p] = Math.min(low[p], low[v]);
+                high[p] = Math.max(high[p], high[v]);
+            }
+        }
+
+        // 4. Blocks over tree edges, tree edge (parent[c], c) being named c
+        ConcurrentDisjointSet blocks = new ConcurrentDisjointSet(n);
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            CompressedAdjacency.Cursor cursor = adjacency.cursor();
+            for (int v = chunk * CHUNK, end = Math.min(n, v + CHUNK); v < end; v++) {
+                cursor.reset(v);
+                while (cursor.next()) {
+                    int w = cursor.neighbor();
+                    if (w <= v || w == parent[v] || parent[w] == v) continue;
+                    if (!isAncestor(pre, size, v, w) && !isAncestor(pre, size, w, v)) {
+                        blocks.union(v, w);
+                    }
+                }
+                int p = parent[v];
+                if (p >= 0 && parent[p] >= 0 && (low[v] < pre[p] || high[v] >= pre[p] + size[p])) {
+                    blocks.union(v, p);
+                }
+            }
+        });
+
+        // 5. Articulation points: tree edges in more than one block
+        BitSet result = new BitSet(n);
+        boolean[] cut = new boolean[n];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            for (int v = chunk * CHUNK, end = Math.min(n, v + CHUNK); v < end; v++) {
+                int block = parent[v] >= 0 ? blocks.find(v) : -1;
+                for (int i = treeStart[v]; i < treeStart[v + 1] && !cut[v]; i++) {
+                    int c = tree[i];
+                    if (c == parent[v]) continue;
+                    int other = blocks.find(c);
+                    if (block < 0) {
+                        block = other;
+                    } else if (other != block) {
+                        cut[v] = true;
+                    }
+                }
+            }
+        });
+        for (int v = 0; v < n; v++) {
+            if (cut[v]) result.set(v);
+        }
+        return result;
+    }
+
+    private static boolean isAncestor(int[] pre, int[] size, int a, int b) {
+        return pre[a] <= pre[b] && pre[b] < pre[a] + size[a];
+    }
+}
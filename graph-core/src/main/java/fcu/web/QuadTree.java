@@ -0,0 +1,205 @@
+package fcu.web;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Spatial index over axis-aligned boxes identified by int ids.
+ * Points are stored as zero-size boxes. The tree is loose: each node accepts items inside its cell grown by
+ * half a cell on every side, so an item lives in the deepest node whose loose bounds contain it. A short edge
+ * that crosses a midline then still sinks to a node about its own size instead of sticking at the first node
+ * it straddles; only edges about as long as a cell stay at that cell's depth.
+ */
+public class QuadTree {
+    private static final int LEAF_CAPACITY = 16;
+    private static final int MAX_DEPTH = 16;
+
+    private float[] minX, minY, maxX, maxY;
+    private final Node root;
+
+    public QuadTree(float x0, float y0, float x1, float y1, int capacity) {
+        minX = new float[capacity];
+        minY = new float[capacity];
+        maxX = new float[capacity];
+        maxY = new float[capacity];
+        root = new Node(x0, y0, Math.max(x1, x0 + 1), Math.max(y1, y0 + 1), 0);
+    }
+
+    public static QuadTree forPoints(float[] x, float[] y, int count) {
+        float[] bounds = bounds(x, y, count);
+        QuadTree tree = new QuadTree(bounds[0], bounds[1], bounds[2], bounds[3], count);
+        for (int i = 0; i < count; i++) {
+            if (!Float.isNaN(x[i]) && !Float.isNaN(y[i])) {
+                tree.insert(i, x[i], y[i], x[i], y[i]);
+            }
+        }
+        return tree;
+    }
+
+    public static QuadTree forSegments(float[] x, float[] y, int vertexCount, int[] from, int[] to, int count) {
+        float[] bounds = bounds(x, y, vertexCount);
+        QuadTree tree = new QuadTree(bounds[0], bounds[1], bounds[2], bounds[3], count);
+        for (int i = 0; i < count; i++) {
+            float x1 = x[from[i]], y1 = y[from[i]], x2 = x[to[i]], y2 = y[to[i]];
+            if (Float.isNaN(x1) || Float.isNaN(y1) || Float.isNaN(x2) || Float.isNaN(y2)) {
+                continue;
+            }
+            tree.insert(i, Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+        }
+        return tree;
+    }
+
+    private static float[] bounds(float[] x, float[] y, int count) {
+        float x0 = Float.MAX_VALUE, y0 = Float.MAX_VALUE, x1 = -Float.MAX_VALUE, y1 = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            if (Float.isNaN(x[i]) || Float.isNaN(y[i])) continue;
+            x0 = Math.min(x0, x[i]);
+            y0 = Math.min(y0, y[i]);
+            x1 = Math.max(x1, x[i]);
+            y1 = Math.max(y1, y[i]);
+        }
+        if (x0 > x1) {
+            return new float[]{0, 0, 1, 1};
+        }
+        return new float[]{x0, y0, x1, y1};
+    }
+
+    public void insert(int id, float x0, float y0, float x1, float y1) {
+        if (id >= minX.length) {
+            int capacity = Math.max(id + 1, minX.length * 2);
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+        }
+        minX[id] = x0;
+        minY[id] = y0;
+        maxX[id] = x1;
+        maxY[id] = y1;
+        root.insert(id);
+    }
+
+    /** Removes an item inserted earlier, found by the box it was inserted with; ids never inserted are ignored. */
+    public void remove(int id) {
+        if (id < minX.length) root.remove(id);
+    }
+
+    /** Visits every item whose box intersects the given rectangle. */
+    public void query(float x0, float y0, float x1, float y1, IntConsumer visitor) {
+        root.query(x0, y0, x1, y1, visitor);
+    }
+
+    private class Node {
+        final float x0, y0, x1, y1;
+        final int depth;
+        int[] items = new int[4];
+        int size;
+        Node[] children;
+
+        Node(float x0, float y0, float x1, float y1, int depth) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.depth = depth;
+        }
+
+        void insert(int id) {
+            Node node = this;
+            while (true) {
+                if (node.children != null) {
+                    Node child = node.childContaining(id);
+                    if (child != null) {
+                        node = child;
+                        continue;
+                    }
+                }
+                node.add(id);
+                if (node.children == null && node.size > LEAF_CAPACITY && node.depth < MAX_DEPTH) {
+                    node.split();
+                }
+                return;
+            }
+        }
+
+        // Insertion and split both stop at the first node without a fitting child, so the same walk finds the item
+        void remove(int id) {
+            Node node = this;
+            while (node.children != null) {
+                Node child = node.childContaining(id);
+                if (child == null) break;
+                node = child;
+            }
+            for (int i = 0; i < node.size; i++) {
+                if (node.items[i] == id) {
+                    node.items[i] = node.items[--node.size];
+                    return;
+                }
+            }
+        }
+
+        // The child whose cell holds the item's center, if the item fits in that child's loose bounds
+        Node childContaining(int id) {
+            float midX = (x0 + x1) / 2, midY = (y0 + y1) / 2;
+            float centerX = (minX[id] + maxX[id]) / 2, centerY = (minY[id] + maxY[id]) / 2;
+            Node child = children[(centerX < midX ? 0 : 1) + (centerY < midY ? 0 : 2)];
+            return child.looselyContains(minX[id], minY[id], maxX[id], maxY[id]) ? child : null;
+        }
+
+        boolean looselyContains(float bx0, float by0, float bx1, float by1) {
+            float padX = (x1 - x0) / 2, padY = (y1 - y0) / 2;
+            return bx0 >= x0 - padX && bx1 <= x1 + padX && by0 >= y0 - padY && by1 <= y1 + padY;
+        }
+
+        boolean looselyMisses(float qx0, float qy0, float qx1, float qy1) {
+            float padX = (x1 - x0) / 2, padY = (y1 - y0) / 2;
+            return qx1 < x0 - padX || qx0 > x1 + padX || qy1 < y0 - padY || qy0 > y1 + padY;
+        }
+
+        void add(int id) {
+            if (size == items.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(items, 0, grown, 0, size);
+                items = grown;
+            }
+            items[size++] = id;
+        }
+
+        void split() {
+            float midX = (x0 + x1) / 2, midY = (y0 + y1) / 2;
+            children = new Node[]{
+                    new Node(x0, y0, midX, midY, depth + 1),
+                    new Node(midX, y0, x1, midY, depth + 1),
+                    new Node(x0, midY, midX, y1, depth + 1),
+                    new Node(midX, midY, x1, y1, depth + 1)
+            };
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int id = items[i];
+                Node child = childContaining(id);
+                if (child != null) {
+                    child.insert(id);
+                } else {
+                    items[kept++] = id;
+                }
+            }
+            size = kept;
+        }
+
+        void query(float qx0, float qy0, float qx1, float qy1, IntConsumer visitor) {
+            // Items that stick out of the root bounds are still kept at the root
+            if (depth > 0 && looselyMisses(qx0, qy0, qx1, qy1)) return;
+            for (int i = 0; i < size; i++) {
+                int id = items[i];
+                if (maxX[id] >= qx0 && minX[id] <= qx1 && maxY[id] >= qy0 && minY[id] <= qy1) {
+                    visitor.accept(id);
+                }
+            }
+            if (children != null) {
+                for (Node child : children) {
+                    child.query(qx0, qy0, qx1, qy1, visitor);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package fcu.web;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Thread-per-task executors for blocking work, on virtual threads when the runtime has them. */
+public final class TaskExecutors {
+    private TaskExecutors() {
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor on Java 21+, looked up reflectively so the module still targets 17.
+     * Older runtimes get a fixed pool of fallbackThreads daemon threads with the given name.
+     */
+    public static ExecutorService perTask(String name, int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newFixedThreadPool(fallbackThreads, r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
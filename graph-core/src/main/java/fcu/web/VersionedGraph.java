@@ -0,0 +1,78 @@
+package fcu.web;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A graph that changes in edge batches while other threads query it. One writer at a time applies a batch to
+ * its private Graph and publishes a new snapshot; readers take current() without any lock and keep a consistent
+ * view for as long as they hold it, however many versions are published meanwhile. Publishing costs the edge
+ * chunks the batch touched (see EdgeVector), not a copy of the graph.
+ */
+public final class VersionedGraph {
+    private final Graph writer;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Version current;
+
+    /** One published state: a read-only Graph and its version number, counting batches from 0. */
+    public static final class Version {
+        public final long number;
+        public final Graph graph;
+
+        Version(long number, Graph graph) {
+            this.number = number;
+            this.graph = graph;
+        }
+    }
+
+    /** Takes over the graph; the caller must not change it afterwards. */
+    public VersionedGraph(Graph initial) {
+        if (initial.isSnapshot()) throw new IllegalArgumentException("Needs a writable graph, not a snapshot");
+        writer = initial;
+        current = new Version(0, writer.snapshot());
+    }
+
+    public Version current() {
+        return current;
+    }
+
+    /**
+     * Adds edges (u[i], v[i]) with weight w[i] for i below count and publishes them as one version. The batch
+     * is checked first and applied whole or not at all: arrays shorter than count, a self loop, a vertex out of
+     * range, a weight that is not positive or an edge that already exists (in the graph or earlier in the batch)
+     * throws IllegalArgumentException.
+     */
+    public Version addEdges(int[] u, int[] v, int[] w, int count) {
+        writeLock.lock();
+        try {
+            if (count < 0 || u.length < count || v.length < count || w.length < count) {
+                throw new IllegalArgumentException("Batch of " + count + " edges needs that many entries in u, v and w");
+            }
+            int n = writer.getVertexCount();
+            EdgeIdMap batch = new EdgeIdMap(count);
+            for (int i = 0; i < count; i++) {
+                if (u[i] < 0 || u[i] >= n || v[i] < 0 || v[i] >= n || u[i] == v[i]) {
+                    throw new IllegalArgumentException("Edge " + u[i] + "-" + v[i] + " is not between two vertices of 0.." + (n - 1));
+                }
+                if (w[i] <= 0) {
+                    throw new IllegalArgumentException("Edge " + u[i] + "-" + v[i] + " has weight " + w[i] + ", weights must be positive");
+                }
+                if (writer.hasEdge(u[i], v[i]) || batch.contains(u[i], v[i])) {
+                    throw new IllegalArgumentException("Edge " + u[i] + "-" + v[i] + " already exists");
+                }
+                batch.put(u[i], v[i], i);
+            }
+            Metrics.Phase phase = Metrics.phase("versioned_graph.publish");
+            long start = phase.start();
+            for (int i = 0; i < count; i++) {
+                writer.addEdge(u[i], v[i], w[i]);
+            }
+            Version next = new Version(current.number + 1, writer.snapshot());
+            current = next;
+            phase.stop(start);
+            Metrics.counter("versioned_graph.edges_added").add(count);
+            return next;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
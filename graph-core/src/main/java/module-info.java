@@ -0,0 +1,10 @@
+/**
+ * Graph data structures, algorithms and layouts. Only java.base, JMX and JFR are required, so a headless
+ * service links this module without loading any of java.desktop.
+ */
+module fcu.web.graph.core {
+    requires java.management;
+    requires jdk.jfr;
+
+    exports fcu.web;
+}
@@ -0,0 +1,371 @@
+package fcu.web;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Local HTTP service over one graph held in memory, bound to the loopback address only.
+ * <ul>
+ *     <li>GET /graph: version, vertex and edge counts.</li>
+ *     <li>POST /edges: "u v weight" lines, added as one batch and published as the next version.</li>
+ *     <li>GET /shortest-path?from=3&amp;to=9: cost (-1 if unreachable) and path.</li>
+ *     <li>POST /shortest-paths: "from to" pairs, one per line; results in the same order.</li>
+ *     <li>GET /mst, GET /critical-nodes: computed on the first request for a version, then served from memory.</li>
+ *     <li>GET /metrics: Metrics in Prometheus text format, including per-endpoint latency histograms.</li>
+ *     <li>GET /stats: per-endpoint request count and latency percentiles in milliseconds, plus rejections.</li>
+ * </ul>
+ * Every query reads the current VersionedGraph snapshot without locking, so edge batches never stall or tear
+ * a running query. Shortest path requests from all clients go through one QueryBatcher. At most maxInFlight requests run at once
+ * and maxQueued more may wait for a slot; beyond that the answer is 503 with Retry-After, so overload shows up
+ * at the client instead of as an unbounded queue. Handlers run on virtual threads where the runtime has them;
+ * before Java 21 the pool of maxInFlight + maxQueued threads is the bound and later connections wait for a thread.
+ * <p>
+ * Usage: GraphServer (snapshot.gss | --random vertices edges) [--port 8080] [--in-flight 64] [--queue 256]
+ */
+public class GraphServer {
+    private static final int MAX_BATCH = 10_000;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final VersionedGraph versions;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final QueryBatcher batcher;
+    private final Semaphore admitted;
+    private final Semaphore running;
+    // Answers for one version; a race between two requests only computes one twice
+    private volatile Cached mst;
+    private volatile Cached criticalNodes;
+
+    private static final class Cached {
+        final long version;
+        final String json;
+
+        Cached(long version, String json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+
+    private interface Handler {
+        String handle(HttpExchange exchange) throws IOException, InterruptedException;
+    }
+
+    /** Takes over the graph, which changes only through POST /edges. Port 0 picks a free port; see getPort. */
+    public GraphServer(Graph graph, int port, int maxInFlight, int maxQueued) throws IOException {
+        versions = new VersionedGraph(graph);
+        versions.current().graph.compressedAdjacency(); // so the first query does not pay for it
+        admitted = new Semaphore(maxInFlight + maxQueued);
+        running = new Semaphore(maxInFlight, true);
+        batcher = new QueryBatcher(versions, MAX_BATCH);
+        executor = TaskExecutors.perTask("graph-server", maxInFlight + maxQueued);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), maxQueued);
+        server.setExecutor(executor);
+        route("/graph", "GET", "graph", exchange -> {
+            VersionedGraph.Version version = versions.current();
+            return "{\"version\":" + version.number + ",\"vertices\":" + version.graph.getVertexCount()
+                    + ",\"edges\":" + version.graph.getEdgeCount() + "}";
+        });
+        route("/edges", "POST", "edges", this::addEdges);
+        route("/shortest-path", "GET", "shortest_path", this::shortestPath);
+        route("/shortest-paths", "POST", "shortest_paths", this::shortestPaths);
+        route("/mst", "GET", "mst", exchange -> {
+            VersionedGraph.Version version = versions.current();
+            Cached cached = mst;
+            if (cached == null || cached.version != version.number) mst = cached = new Cached(version.number, mst(version));
+            return cached.json;
+        });
+        route("/critical-nodes", "GET", "critical_nodes", exchange -> {
+            VersionedGraph.Version version = versions.current();
+            Cached cached = criticalNodes;
+            if (cached == null || cached.version != version.number) {
+                criticalNodes = cached = new Cached(version.number, criticalNodes(version));
+            }
+            return cached.json;
+        });
+        route("/metrics", "GET", "metrics", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            StringWriter out = new StringWriter();
+            Metrics.writeText(out);
+            return out.toString();
+        });
+        route("/stats", "GET", "stats", exchange -> stats());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** Stops accepting, gives running requests up to a second, then cancels the rest. */
+    public void stop() {
+        server.stop(1);
+        batcher.close();
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Graph graph = null;
+        int port = 8080, maxInFlight = 64, maxQueued = 256;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--random" -> graph = randomGraph(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]));
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--in-flight" -> maxInFlight = Integer.parseInt(args[++i]);
+                case "--queue" -> maxQueued = Integer.parseInt(args[++i]);
+                default -> {
+                    try (GraphSnapshot.Reader reader = GraphSnapshot.open(Path.of(args[i]))) {
+                        graph = reader.readGraph();
+                    }
+                }
+            }
+        }
+        if (graph == null) {
+            System.err.println("Usage: GraphServer (snapshot.gss | --random vertices edges) [--port 8080] "
+                    + "[--in-flight 64] [--queue 256]");
+            System.exit(2);
+        }
+        GraphServer server = new GraphServer(graph, port, maxInFlight, maxQueued);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "graph-server-stop"));
+        System.out.printf("Serving %d vertices, %d edges on http://127.0.0.1:%d/%n",
+                graph.getVertexCount(), graph.getEdgeCount(), server.getPort());
+    }
+
+    private void route(String path, String method, String name, Handler handler) {
+        Metrics.Histogram latency = Metrics.histogram("server." + name);
+        server.createContext(path, exchange -> {
+            long start = System.nanoTime();
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    send(exchange, 404, error("Not found"));
+                } else if (!exchange.getRequestMethod().equals(method)) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    send(exchange, 405, error("Use " + method));
+                } else if (!admitted.tryAcquire()) {
+                    Metrics.counter("server.rejected").increment();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    send(exchange, 503, error("Too many requests in flight"));
+                } else {
+                    try {
+                        running.acquire();
+                        try {
+                            send(exchange, 200, handler.handle(exchange));
+                        } finally {
+                            running.release();
+                        }
+                        latency.record(System.nanoTime() - start);
+                    } catch (IllegalArgumentException e) {
+                        send(exchange, 400, error(e.getMessage()));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        send(exchange, 503, error("Shutting down"));
+                    } catch (RuntimeException e) {
+                        send(exchange, 500, error(String.valueOf(e)));
+                    } finally {
+                        admitted.release();
+                    }
+                }
+            } catch (IOException e) {
+                // client went away
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    private String shortestPath(HttpExchange exchange) throws InterruptedException {
+        URI uri = exchange.getRequestURI();
+        int from = vertex(parameter(uri, "from"));
+        int to = vertex(parameter(uri, "to"));
+        return json(await(batcher.submit(new int[]{from}, new int[]{to}))[0]);
+    }
+
+    private String shortestPaths(HttpExchange exchange) throws IOException, InterruptedException {
+        String[] lines = bodyLines(exchange);
+        int[] sources = new int[lines.length];
+        int[] targets = new int[lines.length];
+        int count = 0;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) continue;
+            String[] parts = trimmed.split("[\\s,]+");
+            if (parts.length != 2) throw new IllegalArgumentException("Not a from to pair: " + trimmed);
+            if (count == MAX_BATCH) throw new IllegalArgumentException("At most " + MAX_BATCH + " queries per request");
+            sources[count] = vertex(parts[0]);
+            targets[count] = vertex(parts[1]);
+            count++;
+        }
+        BatchQueries.Result[] results = await(batcher.submit(Arrays.copyOf(sources, count),
+                Arrays.copyOf(targets, count)));
+        StringBuilder json = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < results.length; i++) {
+            if (i > 0) json.append(',');
+            json.append(json(results[i]));
+        }
+        return json.append("]}").toString();
+    }
+
+    private String addEdges(HttpExchange exchange) throws IOException {
+        String[] lines = bodyLines(exchange);
+        int[] u = new int[lines.length];
+        int[] v = new int[lines.length];
+        int[] w = new int[lines.length];
+        int count = 0;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) continue;
+            String[] parts = trimmed.split("[\\s,]+");
+            if (parts.length != 3) throw new IllegalArgumentException("Not a u v weight triple: " + trimmed);
+            if (count == MAX_BATCH) throw new IllegalArgumentException("At most " + MAX_BATCH + " edges per request");
+            u[count] = vertex(parts[0]);
+            v[count] = vertex(parts[1]);
+            w[count] = Integer.parseInt(parts[2]);
+            if (w[count] <= 0) throw new IllegalArgumentException("Weights must be positive: " + trimmed);
+            count++;
+        }
+        VersionedGraph.Version version = versions.addEdges(u, v, w, count);
+        return "{\"version\":" + version.number + ",\"edges\":" + version.graph.getEdgeCount() + "}";
+    }
+
+    private String mst(VersionedGraph.Version version) {
+        List<Graph.Edge> edges = version.graph.kruskalMST();
+        long weight = 0;
+        StringBuilder json = new StringBuilder();
+        for (Graph.Edge edge : edges) {
+            if (json.length() > 0) json.append(',');
+            json.append('[').append(edge.source).append(',').append(edge.destination).append(',')
+                    .append(edge.weight).append(']');
+            weight += edge.weight;
+        }
+        return "{\"version\":" + version.number + ",\"weight\":" + weight + ",\"edges\":[" + json + "]}";
+    }
+
+    private String criticalNodes(VersionedGraph.Version version) {
+        List<Integer> vertices = new ArrayList<>(version.graph.findCriticalNodes());
+        vertices.sort(null);
+        return "{\"version\":" + version.number + ",\"count\":" + vertices.size() + ",\"vertices\":" + vertices.toString().replace(" ", "") + "}";
+    }
+
+    private static String stats() {
+        StringBuilder json = new StringBuilder("{\"rejected\":").append(Metrics.counter("server.rejected").get())
+                .append(",\"endpoints\":{");
+        boolean first = true;
+        for (Map.Entry<String, Metrics.Histogram> entry : Metrics.histograms().entrySet()) {
+            if (!entry.getKey().startsWith("server.")) continue;
+            Metrics.Histogram latency = entry.getValue();
+            if (!first) json.append(',');
+            first = false;
+            json.append('"').append(entry.getKey().substring("server.".length())).append("\":{\"count\":")
+                    .append(latency.getCount());
+            for (double q : new double[]{0.5, 0.9, 0.99}) {
+                json.append(",\"p").append((int) Math.round(q * 100)).append("\":")
+                        .append(latency.percentileNanos(q) / 1e6);
+            }
+            json.append(",\"max\":").append(latency.getMaxNanos() / 1e6).append('}');
+        }
+        return json.append("}}").toString();
+    }
+
+    private static BatchQueries.Result[] await(CompletableFuture<BatchQueries.Result[]> future)
+            throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(cause);
+        } catch (CancellationException e) {
+            throw new InterruptedException("Batch cancelled");
+        }
+    }
+
+    private int vertex(String text) {
+        int n = versions.current().graph.getVertexCount();
+        int v = Integer.parseInt(text.trim());
+        if (v < 0 || v >= n) {
+            throw new IllegalArgumentException("Vertex " + v + " outside 0.." + (n - 1));
+        }
+        return v;
+    }
+
+    private static String[] bodyLines(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) throw new IllegalArgumentException("Body over " + MAX_BODY_BYTES + " bytes");
+        return new String(body, StandardCharsets.UTF_8).split("\\R");
+    }
+
+    private static String parameter(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.substring(0, eq).equals(name)) return pair.substring(eq + 1);
+            }
+        }
+        throw new IllegalArgumentException("Missing parameter " + name);
+    }
+
+    private static String json(BatchQueries.Result result) {
+        StringBuilder json = new StringBuilder()
+                .append("{\"from\":").append(result.source).append(",\"to\":").append(result.target)
+                .append(",\"cost\":").append(result.cost).append(",\"path\":[");
+        int[] path = result.path();
+        for (int i = 0; i < path.length; i++) {
+            if (i > 0) json.append(',');
+            json.append(path[i]);
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Spanning tree first so every vertex is connected, then random extra edges, weights 1-99 as in GraphGUI
+    private static Graph randomGraph(int vertices, int edges) {
+        Graph graph = new Graph(vertices);
+        Random random = new Random();
+        for (int v = 1; v < vertices; v++) {
+            graph.addEdge(v, random.nextInt(v), random.nextInt(99) + 1);
+        }
+        long maxEdges = (long) vertices * (vertices - 1) / 2;
+        while (graph.getEdgeCount() < Math.min(edges, maxEdges)) {
+            int u = random.nextInt(vertices), v = random.nextInt(vertices);
+            if (u != v && !graph.hasEdge(u, v)) graph.addEdge(u, v, random.nextInt(99) + 1);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,106 @@
+package fcu.web;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Coalesces shortest path requests into Graph.shortestPaths calls. Requests that arrive while a batch runs wait
+ * for the next one, so concurrent clients asking from the same sources share one Dijkstra run per source.
+ * There is no collection window: an idle batcher runs a lone request at once, and batches only grow under load.
+ * Each batch runs on the version that is current when it starts.
+ */
+final class QueryBatcher implements AutoCloseable {
+    private final VersionedGraph versions;
+    private final int maxBatch;
+    private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    private static final class Request {
+        final int[] sources, targets;
+        final BatchQueries.Result[] results;
+        final CompletableFuture<BatchQueries.Result[]> done = new CompletableFuture<>();
+
+        Request(int[] sources, int[] targets) {
+            this.sources = sources;
+            this.targets = targets;
+            this.results = new BatchQueries.Result[sources.length];
+        }
+    }
+
+    QueryBatcher(VersionedGraph versions, int maxBatch) {
+        this.versions = versions;
+        this.maxBatch = maxBatch;
+        worker = new Thread(this::loop, "query-batcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Results in the order of the arguments; vertices must already be checked against the graph. */
+    CompletableFuture<BatchQueries.Result[]> submit(int[] sources, int[] targets) {
+        Request request = new Request(sources, targets);
+        queue.add(request);
+        if (closed && queue.remove(request)) request.done.completeExceptionally(new CancellationException());
+        return request.done;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        for (Request request = queue.poll(); request != null; request = queue.poll()) {
+            request.done.completeExceptionally(new CancellationException());
+        }
+    }
+
+    private void loop() {
+        List<Request> batch = new ArrayList<>();
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            int count = batch.get(0).sources.length;
+            for (Request next = queue.peek(); next != null && count + next.sources.length <= maxBatch; next = queue.peek()) {
+                batch.add(queue.poll());
+                count += next.sources.length;
+            }
+            run(batch, count);
+            batch.clear();
+        }
+    }
+
+    private void run(List<Request> batch, int count) {
+        int[] sources = new int[count];
+        int[] targets = new int[count];
+        int[] owner = new int[count];
+        int[] offset = new int[batch.size()];
+        int at = 0;
+        for (int r = 0; r < batch.size(); r++) {
+            Request request = batch.get(r);
+            offset[r] = at;
+            System.arraycopy(request.sources, 0, sources, at, request.sources.length);
+            System.arraycopy(request.targets, 0, targets, at, request.targets.length);
+            for (int i = 0; i < request.sources.length; i++) owner[at + i] = r;
+            at += request.sources.length;
+        }
+        try {
+            versions.current().graph.shortestPaths(sources, targets, result -> {
+                int r = owner[result.index];
+                batch.get(r).results[result.index - offset[r]] = result;
+            });
+            for (Request request : batch) request.done.complete(request.results);
+            Metrics.counter("server.batches").increment();
+            Metrics.counter("server.batched_queries").add(count);
+        } catch (InterruptedException e) {
+            for (Request request : batch) request.done.completeExceptionally(new CancellationException());
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            for (Request request : batch) request.done.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package fcu.web;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pasted "start end" pairs, one per line, answered together by Graph.shortestPaths on a background thread.
+ * Results arrive in input order and are appended to the log in one EDT update per burst.
+ */
+public class BatchQueryDialog extends JDialog {
+    private final Graph graph;
+    private final JTextArea input = new JTextArea(12, 16);
+    private final OutputLog log = new OutputLog();
+    private final JButton runButton = new JButton("Run");
+    private final ConcurrentLinkedQueue<String> arrived = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    public BatchQueryDialog(Frame owner, Graph graph) {
+        super(owner, "Batch Shortest Paths", false);
+        this.graph = graph;
+        setLayout(new BorderLayout());
+
+        JPanel inputPanel = new JPanel(new BorderLayout());
+        inputPanel.add(new JLabel("Start End pairs:"), BorderLayout.NORTH);
+        inputPanel.add(new JScrollPane(input), BorderLayout.CENTER);
+        inputPanel.add(runButton, BorderLayout.SOUTH);
+        add(inputPanel, BorderLayout.WEST);
+        add(new OutputLogPanel(log, 20), BorderLayout.CENTER);
+
+        runButton.addActionListener(e -> run());
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    private void run() {
+        String[] lines = input.getText().split("\\R");
+        int[] sources = new int[lines.length];
+        int[] targets = new int[lines.length];
+        int count = 0;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) continue;
+            String[] parts = trimmed.split("[\\s,]+");
+            try {
+                if (parts.length != 2) throw new NumberFormatException();
+                sources[count] = Integer.parseInt(parts[0]);
+                targets[count] = Integer.parseInt(parts[1]);
+                count++;
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Not a Start End pair: " + trimmed);
+                return;
+            }
+        }
+        int[] s = Arrays.copyOf(sources, count);
+        int[] t = Arrays.copyOf(targets, count);
+
+        log.clear();
+        runButton.setEnabled(false);
+        new Thread(() -> {
+            String message = null;
+            long start = System.nanoTime();
+            try {
+                graph.shortestPaths(s, t, result -> {
+                    arrived.add(describe(result));
+                    if (drainScheduled.compareAndSet(false, true)) {
+                        SwingUtilities.invokeLater(this::drain);
+                    }
+                });
+                message = String.format("%d queries in %.1f ms", s.length, (System.nanoTime() - start) / 1e6);
+            } catch (IllegalArgumentException ex) {
+                message = ex.getMessage();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                message = "Interrupted";
+            } catch (RuntimeException | Error ex) {
+                message = "Batch failed: " + ex;
+                throw ex;
+            } finally {
+                // Runs on every exit, so the Run button always comes back
+                String summary = message != null ? message : "Batch failed";
+                SwingUtilities.invokeLater(() -> {
+                    drain();
+                    log.append(summary);
+                    runButton.setEnabled(true);
+                });
+            }
+        }, "batch-queries").start();
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        List<String> lines = new ArrayList<>();
+        for (String line = arrived.poll(); line != null; line = arrived.poll()) {
+            lines.add(line);
+        }
+        if (!lines.isEmpty()) {
+            log.appendRows(lines.size(), lines::get);
+        }
+    }
+
+    private static String describe(BatchQueries.Result result) {
+        if (!result.isReachable()) {
+            return "v" + result.source + " -> v" + result.target + ": unreachable";
+        }
+        StringBuilder line = new StringBuilder()
+                .append('v').append(result.source).append(" -> v").append(result.target)
+                .append(" Cost: ").append(result.cost).append(" Path:");
+        for (int v : result.path()) {
+            line.append(" v").append(v);
+        }
+        return line.toString();
+    }
+}
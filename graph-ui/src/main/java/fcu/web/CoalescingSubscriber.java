@@ -0,0 +1,85 @@
+package fcu.web;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Collects a stream's items off the EDT and hands them to the EDT in batches, at most one batch per frame,
+ * so a fast algorithm costs one repaint per frame rather than one per item. After cancel no callback runs.
+ */
+public class CoalescingSubscriber<T> implements Flow.Subscriber<T> {
+    private static final int FRAME_MILLIS = 16;
+
+    private final Consumer<List<T>> onBatch;
+    private final Runnable onComplete;
+    private final ConcurrentLinkedQueue<T> arrived = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Timer timer;
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+
+    /** Both callbacks run on the EDT; onComplete after the last batch. */
+    public CoalescingSubscriber(Consumer<List<T>> onBatch, Runnable onComplete) {
+        this.onBatch = onBatch;
+        this.onComplete = onComplete;
+        timer = new Timer(FRAME_MILLIS, e -> drain());
+        timer.setRepeats(false);
+    }
+
+    public void cancel() {
+        cancelled = true;
+        Flow.Subscription current = subscription;
+        if (current != null) current.cancel();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (cancelled) {
+            subscription.cancel();
+        } else {
+            subscription.request(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onNext(T item) {
+        arrived.add(item);
+        if (drainScheduled.compareAndSet(false, true)) {
+            timer.start();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        SwingUtilities.invokeLater(() -> {
+            if (cancelled) return;
+            drain();
+            JOptionPane.showMessageDialog(null, "Algorithm failed: " + throwable);
+        });
+    }
+
+    @Override
+    public void onComplete() {
+        SwingUtilities.invokeLater(() -> {
+            if (cancelled) return;
+            drain();
+            onComplete.run();
+        });
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        if (cancelled) return;
+        List<T> batch = new ArrayList<>();
+        for (T item = arrived.poll(); item != null; item = arrived.poll()) {
+            batch.add(item);
+        }
+        if (!batch.isEmpty()) onBatch.accept(batch);
+    }
+}
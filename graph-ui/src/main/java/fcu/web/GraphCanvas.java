@@ -0,0 +1,250 @@
+package fcu.web;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Base panel for the graph views: owns the zoom/pan viewport and only hands the
+ * edges and vertices that intersect the visible region to the subclass.
+ * The level of detail is picked per paint from the zoom and the number of visible items.
+ * Edges and vertices are rendered once into a cached base layer; highlights go into the
+ * overlay, which is the only thing redrawn when the selection changes.
+ */
+public abstract class GraphCanvas extends JPanel {
+    protected final Viewport viewport = new Viewport();
+    private GraphGeometry geometry;
+    private LevelOfDetail levelOfDetail = LevelOfDetail.FULL;
+
+    // Reused between paints so culling does not allocate per frame
+    private final IntBuffer visibleEdges = new IntBuffer();
+    private final IntBuffer visibleVertices = new IntBuffer();
+    private final LongHashSet drawnSegments = new LongHashSet();
+
+    // Cached base layer and the state it was rendered for
+    private BufferedImage baseLayer;
+    private GraphGeometry baseGeometry;
+    private int baseViewportChange = -1;
+    private boolean baseValid;
+
+    protected GraphCanvas() {
+        viewport.install(this);
+    }
+
+    public void setGeometry(GraphGeometry geometry) {
+        this.geometry = geometry;
+        repaint();
+    }
+
+    // For subclasses whose base styling changed without a new geometry
+    public void invalidateBaseLayer() {
+        baseValid = false;
+        repaint();
+    }
+
+    public GraphGeometry getGeometry() {
+        return geometry;
+    }
+
+    public Viewport getViewport() {
+        return viewport;
+    }
+
+    protected LevelOfDetail getLevelOfDetail() {
+        return levelOfDetail;
+    }
+
+    // Extra screen pixels around the visible area so labels and vertex shapes are not clipped at the border
+    protected int cullMargin() {
+        return 20;
+    }
+
+    // Base layer: must not depend on highlight state, it is only redrawn when the geometry or view changes
+    protected abstract void drawEdge(Graphics2D g, int edge, int x1, int y1, int x2, int y2);
+
+    protected abstract void drawVertex(Graphics2D g, int vertex, int x, int y);
+
+    // Screen-space drawing on top of the cached layer (highlights, captions), redrawn on every paint
+    protected void drawOverlay(Graphics2D g) {
+    }
+
+    // Edges and vertices found visible by the last base layer render
+    protected void forEachVisibleEdge(IntConsumer action) {
+        for (int i = 0; i < visibleEdges.size; i++) {
+            action.accept(visibleEdges.data[i]);
+        }
+    }
+
+    protected void forEachVisibleVertex(IntConsumer action) {
+        for (int i = 0; i < visibleVertices.size; i++) {
+            action.accept(visibleVertices.data[i]);
+        }
+    }
+
+    protected int screenX(int vertex) {
+        return viewport.toScreenX(geometry.getX(vertex));
+    }
+
+    protected int screenY(int vertex) {
+        return viewport.toScreenY(geometry.getY(vertex));
+    }
+
+    protected boolean isOnScreen(int x1, int y1, int x2, int y2) {
+        int m = cullMargin();
+        return Math.max(x1, x2) >= -m && Math.min(x1, x2) <= getWidth() + m
+                && Math.max(y1, y2) >= -m && Math.min(y1, y2) <= getHeight() + m;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        GraphEvents.Span event = GraphEvents.paint();
+        Graphics2D g2d = (Graphics2D) g;
+        GraphGeometry geometry = this.geometry;
+        if (geometry == null || getWidth() <= 0 || getHeight() <= 0) {
+            super.paintComponent(g);
+            drawOverlay(g2d);
+            event.commit();
+            return;
+        }
+        double deviceScale = g2d.getTransform().getScaleX();
+        int imageWidth = (int) Math.ceil(getWidth() * deviceScale);
+        int imageHeight = (int) Math.ceil(getHeight() * deviceScale);
+        boolean rendered = false;
+        if (!baseValid || baseGeometry != geometry || baseViewportChange != viewport.getChangeCount()
+                || baseLayer == null || baseLayer.getWidth() != imageWidth || baseLayer.getHeight() != imageHeight) {
+            renderBaseLayer(geometry, imageWidth, imageHeight, deviceScale);
+            rendered = true;
+        }
+        g2d.drawImage(baseLayer, 0, 0, getWidth(), getHeight(), null);
+        drawOverlay(g2d);
+        GraphEvents.commitPaint(event, geometry.getVertexCount(), geometry.getEdgeCount(),
+                visibleVertices.size, visibleEdges.size, levelOfDetail.name(), rendered);
+    }
+
+    private void renderBaseLayer(GraphGeometry geometry, int imageWidth, int imageHeight, double deviceScale) {
+        if (baseLayer == null || baseLayer.getWidth() != imageWidth || baseLayer.getHeight() != imageHeight) {
+            baseLayer = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g2d = baseLayer.createGraphics();
+        try {
+            g2d.setColor(getBackground());
+            g2d.fillRect(0, 0, imageWidth, imageHeight);
+            g2d.scale(deviceScale, deviceScale);
+            g2d.setFont(getFont());
+
+            int m = cullMargin();
+            float x0 = viewport.toWorldX(-m);
+            float y0 = viewport.toWorldY(-m);
+            float x1 = viewport.toWorldX(getWidth() + m);
+            float y1 = viewport.toWorldY(getHeight() + m);
+
+            visibleEdges.clear();
+            visibleVertices.clear();
+            geometry.visibleEdges(x0, y0, x1, y1, visibleEdges);
+            geometry.visibleVertices(x0, y0, x1, y1, visibleVertices);
+            levelOfDetail = LevelOfDetail.choose(viewport.getScale(), visibleVertices.size, visibleEdges.size,
+                    getWidth(), getHeight());
+
+            drawEdges(g2d, geometry);
+            for (int i = 0; i < visibleVertices.size; i++) {
+                int vertex = visibleVertices.data[i];
+                drawVertex(g2d, vertex, screenX(vertex), screenY(vertex));
+            }
+        } finally {
+            g2d.dispose();
+        }
+        baseGeometry = geometry;
+        baseViewportChange = viewport.getChangeCount();
+        baseValid = true;
+    }
+
+    private void drawEdges(Graphics2D g2d, GraphGeometry geometry) {
+        int cell = levelOfDetail.mergeCell();
+        drawnSegments.clear();
+        for (int i = 0; i < visibleEdges.size; i++) {
+            int edge = visibleEdges.data[i];
+            int u = geometry.getFrom(edge);
+            int v = geometry.getTo(edge);
+            int x1 = screenX(u), y1 = screenY(u), x2 = screenX(v), y2 = screenY(v);
+            if (cell > 0 && !drawnSegments.add(segmentKey(x1 / cell, y1 / cell, x2 / cell, y2 / cell))) {
+                continue; // parallel or near-duplicate of an edge already drawn
+            }
+            drawEdge(g2d, edge, x1, y1, x2, y2);
+        }
+    }
+
+    // Direction-independent key of a snapped segment, 16 bits per coordinate
+    private static long segmentKey(int x1, int y1, int x2, int y2) {
+        if (x1 > x2 || (x1 == x2 && y1 > y2)) {
+            int t = x1; x1 = x2; x2 = t;
+            t = y1; y1 = y2; y2 = t;
+        }
+        return ((long) (x1 & 0xFFFF) << 48) | ((long) (y1 & 0xFFFF) << 32) | ((long) (x2 & 0xFFFF) << 16) | (y2 & 0xFFFF);
+    }
+
+    private static class IntBuffer implements IntConsumer {
+        int[] data = new int[64];
+        int size;
+
+        @Override
+        public void accept(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    // Open addressing set of longs; cleared lazily by bumping a generation stamp
+    private static class LongHashSet {
+        private long[] keys = new long[1024];
+        private int[] stamps = new int[1024];
+        private int stamp = 1;
+        private int size;
+
+        void clear() {
+            size = 0;
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+        }
+
+        boolean add(long key) {
+            if (size * 2 >= keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = (int) (key ^ (key >>> 29) ^ (key >>> 47)) * 0x9E3779B9 & mask;
+            while (stamps[i] == stamp) {
+                if (keys[i] == key) return false;
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            stamps[i] = stamp;
+            size++;
+            return true;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldStamps = stamps;
+            int live = stamp;
+            keys = new long[oldKeys.length * 2];
+            stamps = new int[oldKeys.length * 2];
+            stamp = 1;
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldStamps[i] == live) {
+                    add(oldKeys[i]);
+                }
+            }
+        }
+    }
+}
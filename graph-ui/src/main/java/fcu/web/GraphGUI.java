@@ -0,0 +1,701 @@
+package fcu.web;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class GraphGUI extends JFrame {
+    private static final Color SEPARATOR_COLOR = new Color(255, 140, 0);
+    private static final Color SEARCH_TREE_COLOR = new Color(160, 200, 255);
+    // k shortest paths, best first; the best keeps the shortest path blue
+    private static final Color[] PATH_COLORS = {
+            Color.BLUE, new Color(0, 150, 0), Color.MAGENTA, new Color(0, 170, 170),
+            new Color(140, 70, 20), new Color(120, 0, 200), Color.PINK, Color.GRAY
+    };
+    private Graph graph;
+    private GraphCanvas graphPanel;
+    private JButton calcMSTButton, findCriticalNodesButton, findShortestPathButton, kPathsButton, startButton;
+    private JTextField srcField, destField, kField, vertexCountField, edgeCountField;
+    private JTextField edgeFromField, edgeToField, weightField;
+    private JButton[] editButtons;
+    private List<List<Integer>> alternativePaths = List.of();
+    // Algorithm currently painting its results in; replaced or cancelled by the next action
+    private CoalescingSubscriber<?> stream;
+    // Background search (k shortest paths, separators after an edit) whose result may still be shown;
+    // replaced or cleared by the next action
+    private Object pathSearch;
+    private final HighlightModel highlights = new HighlightModel();
+    private JComboBox<String> layoutBox;
+    private JComboBox<String> orderBox;
+    private final ProgressiveLayout progressiveLayout = new ProgressiveLayout();
+    // Latest layout engine positions in layout units; fitted to the panel on every resize
+    private float[] layoutX, layoutY;
+    private int src, dest;
+    // Tree from src that edits are applied through while the Start-End path is shown, so it is repaired in place
+    private DynamicShortestPaths paths;
+    private boolean pathShown;
+    private String editStatus;
+
+    private enum EdgeEdit {
+        ADD("Added"), DELETE("Deleted"), WEIGHT("Reweighted");
+
+        final String done;
+
+        EdgeEdit(String done) {
+            this.done = done;
+        }
+    }
+
+    public GraphGUI() {
+        graph = new Graph(0);
+
+        setTitle("D1204433 林俊傑 Graph Algorithm Visualizer");
+        setSize(800, 600);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        graphPanel = new GraphCanvas() {
+            @Override
+            protected void drawEdge(Graphics2D g, int edge, int x1, int y1, int x2, int y2) {
+                GraphGUI.this.drawEdge(g, graph.getEdge(edge).weight, x1, y1, x2, y2, Color.BLACK);
+            }
+
+            @Override
+            protected void drawVertex(Graphics2D g, int vertex, int x, int y) {
+                GraphGUI.this.drawVertex(g, vertex, x, y, Color.BLACK);
+            }
+
+            @Override
+            protected void drawOverlay(Graphics2D g) {
+                drawHighlights(g);
+
+                // Display vertex and edge information
+                g.setColor(Color.BLACK);
+                g.drawString("Vertices: " + graph.getVertexCount(), 10, 20);
+                g.drawString("Edges: " + graph.getEdgeCount(), 10, 40);
+                if (!highlights.isEmpty(HighlightModel.VertexMark.SEPARATOR)) {
+                    g.setColor(SEPARATOR_COLOR);
+                    g.drawString("Separators: " + highlights.count(HighlightModel.VertexMark.SEPARATOR), 10, 60);
+                }
+                if (editStatus != null) {
+                    g.setColor(Color.BLACK);
+                    g.drawString(editStatus, 10, 80);
+                }
+            }
+        };
+        graphPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                updateLayout();
+            }
+        });
+        add(graphPanel, BorderLayout.CENTER);
+
+        JPanel controlPanel = new JPanel();
+        calcMSTButton = new JButton("Calculate MST");
+        findCriticalNodesButton = new JButton("Find Critical Nodes");
+        findShortestPathButton = new JButton("Find Shortest Path");
+        kPathsButton = new JButton("K Shortest Paths");
+        kField = new JTextField("3", 3);
+        startButton = new JButton("Start");
+        srcField = new JTextField(5);
+        destField = new JTextField(5);
+        vertexCountField = new JTextField(5);
+        edgeCountField = new JTextField(5);
+        layoutBox = new JComboBox<>(new String[]{"Multilevel", "Force-directed", "Grid"});
+        // Vertex order the algorithms run in; the fields and results always use the original numbers
+        orderBox = new JComboBox<>(new String[]{"Natural order", "RCM", "BFS", "DEGREE"});
+
+        controlPanel.add(new JLabel("Vertices:"));
+        controlPanel.add(vertexCountField);
+        controlPanel.add(new JLabel("Edges:"));
+        controlPanel.add(edgeCountField);
+        controlPanel.add(startButton);
+        controlPanel.add(layoutBox);
+        controlPanel.add(orderBox);
+        controlPanel.add(calcMSTButton);
+        controlPanel.add(findCriticalNodesButton);
+        controlPanel.add(new JLabel("Start:"));
+        controlPanel.add(srcField);
+        controlPanel.add(new JLabel("End:"));
+        controlPanel.add(destField);
+        controlPanel.add(findShortestPathButton);
+        controlPanel.add(new JLabel("K:"));
+        controlPanel.add(kField);
+        controlPanel.add(kPathsButton);
+        edgeFromField = new JTextField(4);
+        edgeToField = new JTextField(4);
+        weightField = new JTextField(3);
+        JButton addEdgeButton = new JButton("Add Edge");
+        JButton deleteEdgeButton = new JButton("Delete Edge");
+        JButton setWeightButton = new JButton("Set Weight");
+        addEdgeButton.addActionListener(e -> editEdge(EdgeEdit.ADD));
+        deleteEdgeButton.addActionListener(e -> editEdge(EdgeEdit.DELETE));
+        setWeightButton.addActionListener(e -> editEdge(EdgeEdit.WEIGHT));
+        editButtons = new JButton[]{addEdgeButton, deleteEdgeButton, setWeightButton};
+        controlPanel.add(new JLabel("Edge:"));
+        controlPanel.add(edgeFromField);
+        controlPanel.add(edgeToField);
+        controlPanel.add(new JLabel("W:"));
+        controlPanel.add(weightField);
+        controlPanel.add(addEdgeButton);
+        controlPanel.add(deleteEdgeButton);
+        controlPanel.add(setWeightButton);
+        JButton batchButton = new JButton("Batch...");
+        batchButton.addActionListener(e -> new BatchQueryDialog(this, graph.snapshot()).setVisible(true));
+        controlPanel.add(batchButton);
+
+        add(controlPanel, BorderLayout.SOUTH);
+
+        // Collapsible algorithm statistics
+        MetricsPanel statsPanel = new MetricsPanel();
+        statsPanel.setVisible(false);
+        add(statsPanel, BorderLayout.EAST);
+        JToggleButton statsButton = new JToggleButton("Stats");
+        statsButton.addActionListener(e -> {
+            statsPanel.setVisible(statsButton.isSelected());
+            statsPanel.refresh();
+            revalidate();
+        });
+        controlPanel.add(statsButton);
+
+        JButton saveButton = new JButton("Save...");
+        JButton openButton = new JButton("Open...");
+        saveButton.addActionListener(e -> saveSnapshot());
+        openButton.addActionListener(e -> openSnapshot());
+        controlPanel.add(saveButton);
+        controlPanel.add(openButton);
+
+        Metrics.registerMBean();
+        // -Dgraph.metrics.file=/path/graph.prom rewrites the text export every 10 seconds for a local scraper
+        String metricsFile = System.getProperty("graph.metrics.file");
+        if (metricsFile != null) {
+            Metrics.exportTextFile(Paths.get(metricsFile), 10, TimeUnit.SECONDS);
+        }
+
+        startButton.addActionListener(e -> {
+            try {
+                int vertices = Integer.parseInt(vertexCountField.getText());
+                int edges = Integer.parseInt(edgeCountField.getText());
+                graph = new Graph(vertices);
+                graph.setVertexOrder(selectedOrder());
+                paths = null;
+                generateConnectedGraph(edges);
+                clearHighlights();
+                computeLayout();
+                repaint();
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Please enter valid numbers for vertices and edges");
+            }
+        });
+
+        layoutBox.addActionListener(e -> computeLayout());
+        orderBox.addActionListener(e -> graph.setVertexOrder(selectedOrder()));
+
+        // MST edges, critical nodes and the shortest path tree are painted in as the algorithms find them,
+        // from a snapshot so the background run never sees the graph change under it
+        calcMSTButton.addActionListener(e -> {
+            clearHighlights();
+            stream(graph.snapshot().streamMST(), batch -> {
+                for (Graph.Edge edge : batch) {
+                    highlights.mark(HighlightModel.EdgeMark.MST, edge.id);
+                }
+                graphPanel.repaint();
+            }, () -> {});
+        });
+
+        findCriticalNodesButton.addActionListener(e -> {
+            clearHighlights();
+            stream(graph.snapshot().streamCriticalNodes(), batch -> {
+                for (int node : batch) {
+                    highlights.mark(HighlightModel.VertexMark.CRITICAL, node);
+                }
+                graphPanel.repaint();
+            }, () -> {});
+        });
+
+        findShortestPathButton.addActionListener(e -> {
+            try {
+                src = Integer.parseInt(srcField.getText());
+                dest = Integer.parseInt(destField.getText());
+                clearHighlights();
+                Graph searched = graph.snapshot();
+                int start = src, end = dest;
+                int[] previous = new int[searched.getVertexCount()];
+                Arrays.fill(previous, -1);
+                stream(searched.streamShortestPathTree(start, end), batch -> {
+                    for (Graph.Settled settled : batch) {
+                        previous[settled.vertex] = settled.previous;
+                        if (settled.previous >= 0) {
+                            highlights.mark(HighlightModel.EdgeMark.SEARCH_TREE, searched.edgeId(settled.previous, settled.vertex));
+                        }
+                    }
+                    graphPanel.repaint();
+                }, () -> {
+                    List<Integer> shortestPath = new ArrayList<>();
+                    for (int at = end; at != -1; at = previous[at]) {
+                        shortestPath.add(at);
+                    }
+                    Collections.reverse(shortestPath);
+                    highlights.markPath(shortestPath, searched::edgeId);
+                    pathShown = true;
+                    // Vertices whose loss would cut every Start-End route, from the block-cut tree
+                    for (int v : searched.blockCutTree().separators(start, end)) {
+                        highlights.mark(HighlightModel.VertexMark.SEPARATOR, v);
+                    }
+                    graphPanel.repaint();
+                });
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Please enter valid node numbers");
+            }
+        });
+
+        // Yen's algorithm runs k x path length searches, so it runs off the EDT on a snapshot
+        kPathsButton.addActionListener(e -> {
+            int k;
+            try {
+                src = Integer.parseInt(srcField.getText());
+                dest = Integer.parseInt(destField.getText());
+                k = Integer.parseInt(kField.getText());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Please enter valid node numbers and K");
+                return;
+            }
+            if (!isVertex(src) || !isVertex(dest) || k < 1) {
+                JOptionPane.showMessageDialog(this, "Start and End must be vertices of the graph and K at least 1");
+                return;
+            }
+            clearHighlights();
+            Graph searched = graph.snapshot();
+            Object search = new Object();
+            pathSearch = search;
+            int start = src, end = dest;
+            kPathsButton.setEnabled(false);
+            new Thread(() -> {
+                List<List<Integer>> paths = List.of();
+                String failure = null;
+                try {
+                    paths = searched.kShortestPaths(start, end, k);
+                } catch (RuntimeException ex) {
+                    failure = "K shortest paths failed: " + ex;
+                }
+                List<List<Integer>> found = paths;
+                String message = failure;
+                SwingUtilities.invokeLater(() -> {
+                    kPathsButton.setEnabled(true);
+                    if (message != null) JOptionPane.showMessageDialog(this, message);
+                    // Dropped if another action or an edit came in meanwhile
+                    if (pathSearch != search || graph.snapshot() != searched) return;
+                    alternativePaths = found;
+                    repaint();
+                });
+            }, "k-shortest-paths").start();
+        });
+    }
+
+    private void generateConnectedGraph(int edgeCount) {
+        GraphEvents.Span event = GraphEvents.generation(graph.getVertexCount(), edgeCount);
+        Random random = new Random();
+        List<Integer> connectedVertices = new ArrayList<>();
+        connectedVertices.add(0);
+
+        // 確保所有頂點都連接
+        for (int i = 1; i < graph.getVertexCount(); i++) {
+            int connectedVertex = connectedVertices.get(random.nextInt(connectedVertices.size()));
+            int weight = random.nextInt(99) + 1; // 1-99
+            graph.addEdge(i, connectedVertex, weight);
+            connectedVertices.add(i);
+            edgeCount--;
+        }
+
+        // 添加剩餘的邊
+        while (edgeCount > 0 && graph.getEdgeCount() < (long) graph.getVertexCount() * (graph.getVertexCount() - 1) / 2) {
+            int u = random.nextInt(graph.getVertexCount());
+            int v = random.nextInt(graph.getVertexCount());
+            if (u != v && !graph.hasEdge(u, v)) {
+                int weight = random.nextInt(99) + 1; // 1-99
+                graph.addEdge(u, v, weight);
+                edgeCount--;
+            }
+        }
+        event.commit();
+    }
+
+    // Copies the mutable state on the EDT and writes the snapshot on a background thread
+    private void saveSnapshot() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = chooser.getSelectedFile();
+        Graph saved = graph.snapshot();
+        float[] x = layoutX != null && layoutX.length == saved.getVertexCount() ? layoutX.clone() : null;
+        float[] y = x != null ? layoutY.clone() : null;
+        HighlightModel marks = highlights.copy();
+        new Thread(() -> {
+            String message;
+            try {
+                GraphSnapshot.write(file.toPath(), saved, x, y, marks);
+                message = "Saved " + saved.getVertexCount() + " vertices and " + saved.getEdgeCount() + " edges to " + file;
+            } catch (IOException ex) {
+                message = "Save failed: " + ex.getMessage();
+            }
+            String result = message;
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, result));
+        }, "snapshot-save").start();
+    }
+
+    // Loads section by section: the graph with its positions goes on screen first, the highlights follow
+    private void openSnapshot() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = chooser.getSelectedFile();
+        progressiveLayout.cancel();
+        new Thread(() -> {
+            try (GraphSnapshot.Reader reader = GraphSnapshot.open(file.toPath())) {
+                Graph loaded = reader.readGraph();
+                float[] x = new float[loaded.getVertexCount()];
+                float[] y = new float[loaded.getVertexCount()];
+                boolean hasLayout = reader.readLayout(x, y);
+                SwingUtilities.invokeLater(() -> {
+                    graph = loaded;
+                    graph.setVertexOrder(selectedOrder());
+                    paths = null;
+                    clearHighlights();
+                    layoutX = hasLayout ? x : null;
+                    layoutY = hasLayout ? y : null;
+                    updateLayout();
+                    repaint();
+                });
+                HighlightModel marks = reader.readMarks();
+                SwingUtilities.invokeLater(() -> {
+                    if (graph != loaded) return;
+                    highlights.set(marks);
+                    repaint();
+                });
+            } catch (IOException | RuntimeException ex) {
+                // The Reader reports corrupt files as IOException; anything else still gets a dialog, not a dead thread
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, "Open failed: " + ex.getMessage()));
+            }
+        }, "snapshot-open").start();
+    }
+
+    private void clearHighlights() {
+        if (stream != null) {
+            stream.cancel();
+            stream = null;
+        }
+        highlights.clear();
+        alternativePaths = List.of();
+        pathSearch = null;
+        pathShown = false;
+        editStatus = null;
+    }
+
+    // With the path shown the first edit builds the tree from src once; every later one only repairs it
+    private void editEdge(EdgeEdit edit) {
+        int u, v, w;
+        try {
+            u = Integer.parseInt(edgeFromField.getText());
+            v = Integer.parseInt(edgeToField.getText());
+            w = edit == EdgeEdit.DELETE ? 0 : Integer.parseInt(weightField.getText());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter valid node numbers and weight");
+            return;
+        }
+        if (pathShown && (paths == null || paths.getSource() != src)) {
+            buildTree(() -> applyEdit(edit, u, v, w));
+        } else {
+            applyEdit(edit, u, v, w);
+        }
+    }
+
+    // The tree costs a full Dijkstra, so it is built off the EDT; edits wait, since it reads the graph itself
+    private void buildTree(Runnable then) {
+        Graph built = graph;
+        int source = src;
+        for (JButton button : editButtons) button.setEnabled(false);
+        new Thread(() -> {
+            DynamicShortestPaths tree = null;
+            String failure = null;
+            try {
+                tree = new DynamicShortestPaths(built, source);
+            } catch (RuntimeException ex) {
+                failure = "Shortest path tree failed: " + ex;
+            }
+            DynamicShortestPaths result = tree;
+            String message = failure;
+            SwingUtilities.invokeLater(() -> {
+                for (JButton button : editButtons) button.setEnabled(true);
+                if (message != null) JOptionPane.showMessageDialog(this, message);
+                // A new or opened graph meanwhile makes the edit moot
+                if (graph != built) return;
+                if (result != null && src == source) paths = result;
+                then.run();
+            });
+        }, "shortest-path-tree").start();
+    }
+
+    // Everything on the EDT here is proportional to the change: the repair, one geometry entry and the path marks
+    private void applyEdit(EdgeEdit edit, int u, int v, int w) {
+        long startTime = System.nanoTime();
+        boolean repair = pathShown && paths != null && paths.getSource() == src;
+        GraphGeometry geometry = graphPanel.getGeometry();
+        boolean inStep = geometry != null && geometry.getEdgeCount() == graph.getEdgeCount();
+        int removed = edit == EdgeEdit.DELETE ? graph.edgeId(u, v) : -1;
+        int changed = 0;
+        try {
+            if (repair) {
+                changed = edit == EdgeEdit.ADD ? paths.addEdge(u, v, w)
+                        : edit == EdgeEdit.DELETE ? paths.removeEdge(u, v)
+                        : paths.setWeight(u, v, w);
+            } else {
+                editGraph(edit, u, v, w);
+                paths = null;
+            }
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage());
+            return;
+        }
+        clearHighlights();
+        if (!inStep) {
+            updateLayout();
+        } else if (edit == EdgeEdit.ADD) {
+            geometry.addEdge(u, v);
+        } else if (edit == EdgeEdit.DELETE) {
+            geometry.removeEdge(removed);
+        }
+        // Weight labels live in the cached base layer
+        graphPanel.invalidateBaseLayer();
+        if (repair) {
+            highlights.markPath(paths.path(dest), graph::edgeId);
+            pathShown = true;
+            findSeparators();
+            editStatus = String.format("%s %d-%d: %d distances repaired in %.2f ms",
+                    edit.done, u, v, changed, (System.nanoTime() - startTime) / 1e6);
+        } else {
+            editStatus = String.format("%s %d-%d in %.2f ms", edit.done, u, v, (System.nanoTime() - startTime) / 1e6);
+        }
+        repaint();
+    }
+
+    // The block-cut tree is rebuilt in O(V + E) after an edit, so the separators arrive from a snapshot later
+    private void findSeparators() {
+        Graph searched = graph.snapshot();
+        Object search = new Object();
+        pathSearch = search;
+        int start = src, end = dest;
+        new Thread(() -> {
+            int[] found = searched.blockCutTree().separators(start, end);
+            SwingUtilities.invokeLater(() -> {
+                if (pathSearch != search || graph.snapshot() != searched) return;
+                for (int separator : found) {
+                    highlights.mark(HighlightModel.VertexMark.SEPARATOR, separator);
+                }
+                repaint();
+            });
+        }, "separators").start();
+    }
+
+    private void editGraph(EdgeEdit edit, int u, int v, int w) {
+        if (!isVertex(u) || !isVertex(v)) throw new IllegalArgumentException("Vertex out of range");
+        if (edit != EdgeEdit.DELETE && w <= 0) throw new IllegalArgumentException("Weights must be positive: " + w);
+        if (edit == EdgeEdit.ADD) {
+            if (u == v) throw new IllegalArgumentException("Self-loop at " + u);
+            if (graph.hasEdge(u, v)) throw new IllegalArgumentException("Edge " + u + "-" + v + " already exists");
+            graph.addEdge(u, v, w);
+        } else if (!(edit == EdgeEdit.DELETE ? graph.removeEdge(u, v) : graph.setWeight(u, v, w))) {
+            throw new IllegalArgumentException("No edge " + u + "-" + v);
+        }
+    }
+
+    private <T> void stream(Flow.Publisher<T> publisher, Consumer<List<T>> onBatch, Runnable onComplete) {
+        CoalescingSubscriber<T> subscriber = new CoalescingSubscriber<>(onBatch, onComplete);
+        stream = subscriber;
+        publisher.subscribe(subscriber);
+    }
+
+    private boolean isVertex(int v) {
+        return v >= 0 && v < graph.getVertexCount();
+    }
+
+    private VertexOrder.Strategy selectedOrder() {
+        return orderBox.getSelectedIndex() == 0 ? null : VertexOrder.Strategy.valueOf((String) orderBox.getSelectedItem());
+    }
+
+    private boolean isGridLayout() {
+        return "Grid".equals(layoutBox.getSelectedItem());
+    }
+
+    // Shows the grid right away and replaces it with the engine's frames as they arrive from the layout thread
+    private void computeLayout() {
+        progressiveLayout.cancel();
+        layoutX = null;
+        layoutY = null;
+        updateLayout();
+        if (isGridLayout() || graph.getVertexCount() == 0) return;
+
+        float[] x = new float[graph.getVertexCount()];
+        float[] y = new float[graph.getVertexCount()];
+        Arrays.fill(x, Float.NaN);
+        Arrays.fill(y, Float.NaN);
+        LayoutEngine engine = "Force-directed".equals(layoutBox.getSelectedItem())
+                ? new ForceDirectedLayout()
+                : new MultilevelLayout();
+        Graph laidOut = graph.snapshot();
+        progressiveLayout.start(engine, graph.adjacency(), x, y, (px, py) -> {
+            // Panel size is read off the EDT; a stale value is corrected by the resize listener
+            float[] fx = px.clone();
+            float[] fy = py.clone();
+            Layouts.fit(laidOut.getVertexCount(), fx, fy, graphPanel.getWidth(), graphPanel.getHeight(), 20);
+            return geometry(laidOut, fx, fy);
+        }, frame -> {
+            layoutX = frame.x;
+            layoutY = frame.y;
+            // Edge ids of the laid out snapshot are stale once an edit has moved them
+            if (laidOut == graph.snapshot()) {
+                graphPanel.setGeometry(frame.getGeometry());
+            } else {
+                updateLayout();
+            }
+        });
+    }
+
+    // Placement in world coordinates; the viewport takes care of zoom and pan
+    private void updateLayout() {
+        int width = graphPanel.getWidth();
+        int height = graphPanel.getHeight();
+        if (layoutX != null && layoutX.length == graph.getVertexCount()) {
+            float[] x = layoutX.clone();
+            float[] y = layoutY.clone();
+            Layouts.fit(graph.getVertexCount(), x, y, width, height, 20);
+            setGeometry(x, y);
+            return;
+        }
+
+        int rows = (int) Math.ceil(Math.sqrt(graph.getVertexCount()));
+        int cols = (int) Math.ceil((double) graph.getVertexCount() / rows);
+
+        if (rows == 0 || cols == 0) {
+            graphPanel.setGeometry(null);
+            return; // 避免除以零
+        }
+
+        int cellWidth = width / cols;
+        int cellHeight = height / rows;
+
+        float[] x = new float[graph.getVertexCount()];
+        float[] y = new float[graph.getVertexCount()];
+        for (int i = 0; i < graph.getVertexCount(); i++) {
+            x[i] = (i % cols) * cellWidth + cellWidth / 2;
+            y[i] = (i / cols) * cellHeight + cellHeight / 2;
+        }
+        setGeometry(x, y);
+    }
+
+    private void setGeometry(float[] x, float[] y) {
+        graphPanel.setGeometry(geometry(graph, x, y));
+    }
+
+    // Edge ids are list positions, so the spatial index and the highlight bits share them
+    private static GraphGeometry geometry(Graph graph, float[] x, float[] y) {
+        int edgeCount = graph.getEdgeCount();
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        for (Graph.Edge edge : graph.getEdges()) {
+            from[edge.id] = edge.source;
+            to[edge.id] = edge.destination;
+        }
+        return new GraphGeometry(graph.getVertexCount(), x, y, edgeCount, from, to);
+    }
+
+    private void drawEdge(Graphics2D g, int weight, int x1, int y1, int x2, int y2, Color color) {
+        g.setColor(color);
+        g.drawLine(x1, y1, x2, y2);
+        if (graphPanel.getLevelOfDetail().showsLabels()) {
+            g.drawString(String.valueOf(weight), (x1 + x2) / 2, (y1 + y2) / 2);
+        }
+    }
+
+    private void drawVertex(Graphics2D g, int i, int cx, int cy, Color color) {
+        LevelOfDetail detail = graphPanel.getLevelOfDetail();
+        int x = cx - 10;
+        int y = cy - 10;
+        g.setColor(color);
+        if (!detail.showsVertexShapes()) {
+            g.fillRect(cx, cy, 1, 1);
+            return;
+        }
+        g.fillRect(x, y, 20, 20);
+        if (detail.showsLabels()) {
+            g.setColor(Color.WHITE);
+            g.drawString(String.valueOf(i), x + 7, y + 15);
+        }
+    }
+
+    // MST, path and critical nodes are drawn over the cached base layer, so selecting them never redraws the graph
+    private void drawHighlights(Graphics2D g) {
+        if (graphPanel.getGeometry() == null) return;
+
+        for (int e = highlights.next(HighlightModel.EdgeMark.SEARCH_TREE, 0); e >= 0; e = highlights.next(HighlightModel.EdgeMark.SEARCH_TREE, e + 1)) {
+            Graph.Edge edge = graph.getEdge(e);
+            drawHighlightedEdge(g, edge.source, edge.destination, edge.weight, SEARCH_TREE_COLOR);
+        }
+        for (int e = highlights.next(HighlightModel.EdgeMark.MST, 0); e >= 0; e = highlights.next(HighlightModel.EdgeMark.MST, e + 1)) {
+            Graph.Edge edge = graph.getEdge(e);
+            drawHighlightedEdge(g, edge.source, edge.destination, edge.weight, Color.RED);
+        }
+        for (int e = highlights.next(HighlightModel.EdgeMark.PATH, 0); e >= 0; e = highlights.next(HighlightModel.EdgeMark.PATH, e + 1)) {
+            Graph.Edge edge = graph.getEdge(e);
+            drawHighlightedEdge(g, edge.source, edge.destination, edge.weight, Color.BLUE);
+        }
+        // Worst first, so the best path ends up on top where they share edges
+        for (int i = alternativePaths.size() - 1; i >= 0; i--) {
+            List<Integer> path = alternativePaths.get(i);
+            Color color = PATH_COLORS[i % PATH_COLORS.length];
+            for (int j = 1; j < path.size(); j++) {
+                int u = path.get(j - 1), v = path.get(j);
+                drawHighlightedEdge(g, u, v, graph.getEdge(graph.edgeId(u, v)).weight, color);
+            }
+            for (int v : path) {
+                drawHighlightedVertex(g, v, color);
+            }
+        }
+        for (int v = highlights.next(HighlightModel.VertexMark.PATH, 0); v >= 0; v = highlights.next(HighlightModel.VertexMark.PATH, v + 1)) {
+            drawHighlightedVertex(g, v, Color.BLUE);
+        }
+        for (int v = highlights.next(HighlightModel.VertexMark.SEPARATOR, 0); v >= 0; v = highlights.next(HighlightModel.VertexMark.SEPARATOR, v + 1)) {
+            drawHighlightedVertex(g, v, SEPARATOR_COLOR);
+        }
+        for (int v = highlights.next(HighlightModel.VertexMark.CRITICAL, 0); v >= 0; v = highlights.next(HighlightModel.VertexMark.CRITICAL, v + 1)) {
+            drawHighlightedVertex(g, v, Color.RED);
+        }
+    }
+
+    private void drawHighlightedEdge(Graphics2D g, int u, int v, int weight, Color color) {
+        int x1 = graphPanel.screenX(u), y1 = graphPanel.screenY(u);
+        int x2 = graphPanel.screenX(v), y2 = graphPanel.screenY(v);
+        if (graphPanel.isOnScreen(x1, y1, x2, y2)) {
+            drawEdge(g, weight, x1, y1, x2, y2, color);
+        }
+    }
+
+    private void drawHighlightedVertex(Graphics2D g, int vertex, Color color) {
+        if (vertex < 0 || vertex >= graph.getVertexCount()) return;
+        int x = graphPanel.screenX(vertex), y = graphPanel.screenY(vertex);
+        if (graphPanel.isOnScreen(x, y, x, y)) {
+            drawVertex(g, vertex, x, y, color);
+        }
+    }
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> new GraphGUI().setVisible(true));
+    }
+}
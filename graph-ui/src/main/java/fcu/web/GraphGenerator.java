@@ -1,3 +1,5 @@
+package fcu.web;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -13,10 +15,10 @@ public class GraphGenerator extends JFrame {
     private JButton mstButton;
     private JButton apButton;
     private JButton spButton;
-    private JTextArea infoArea;
+    private final OutputLog infoLog = new OutputLog();
     private GraphPanel graphPanel;
     private java.util.List<Edge> edgeList;
-    private int[] parent;
+    private int vertexCount;
     private boolean[] articulationPoints;
     private java.util.List<Integer> shortestPath;
 
@@ -61,10 +63,7 @@ public class GraphGenerator extends JFrame {
         add(inputPanel, BorderLayout.NORTH);
 
         // Info Area
-        infoArea = new JTextArea();
-        infoArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(infoArea);
-        add(scrollPane, BorderLayout.EAST);
+        add(new OutputLogPanel(infoLog, 20), BorderLayout.EAST);
 
         // Graph Panel
         graphPanel = new GraphPanel();
@@ -110,79 +109,72 @@ public class GraphGenerator extends JFrame {
         // Generate random graph
         Random rand = new Random();
         edgeList = new ArrayList<>();
+        EdgeIdMap edgeIds = new EdgeIdMap(edges);
         while (edgeList.size() < edges) {
             int v1 = rand.nextInt(vertices);
             int v2 = rand.nextInt(vertices);
             if (v1 != v2) {
                 int cost = rand.nextInt(99) + 1;
-                boolean exists = false;
-                for (Edge edge : edgeList) {
-                    if (edge.connects(v1, v2)) {
-                        exists = true;
-                        break;
-                    }
-                }
-                if (!exists) {
-                    edgeList.add(new Edge(v1, v2, cost));
+                if (!edgeIds.contains(v1, v2)) {
+                    edgeIds.put(v1, v2, edgeList.size());
+                    edgeList.add(new Edge(edgeList.size(), v1, v2, cost));
                 }
             }
         }
 
-        StringBuilder info = new StringBuilder();
-        info.append("Vertices: ").append(vertices).append("\n");
-        for (Edge edge : edgeList) {
-            info.append("Edge: v").append(edge.v1).append(" - v").append(edge.v2)
-                    .append(" (Cost: ").append(edge.cost).append(")\n");
-        }
-        infoArea.setText(info.toString());
+        // edgeList is sorted in place by the MST, so the listing keeps its own order
+        Edge[] listed = edgeList.toArray(new Edge[0]);
+        infoLog.clear();
+        infoLog.append("Vertices: " + vertices);
+        infoLog.append(describeConnectivity(vertices, listed));
+        infoLog.appendRows(listed.length, i -> describe(listed[i]));
 
-        graphPanel.setGraphData(vertices, edgeList);
+        graphPanel.setGraphData(vertices, edgeList, edgeIds);
 
-        parent = new int[vertices];
+        vertexCount = vertices;
         articulationPoints = new boolean[vertices];
         shortestPath = new ArrayList<>();
-        for (int i = 0; i < vertices; i++) {
-            parent[i] = i;
-        }
     }
 
-    private int find(int i) {
-        if (parent[i] != i) {
-            parent[i] = find(parent[i]);
+    // Random edges are not guaranteed to connect every vertex; say so before the MST comes out as a forest
+    private static String describeConnectivity(int vertices, Edge[] edges) {
+        int[] from = new int[edges.length];
+        int[] to = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            from[i] = edges[i].v1;
+            to[i] = edges[i].v2;
         }
-        return parent[i];
-    }
-
-    private void union(int i, int j) {
-        parent[find(i)] = find(j);
+        ConnectedComponents components = ConnectedComponents.compute(vertices, from, to, edges.length);
+        if (components.isConnected()) {
+            return "Connected: yes";
+        }
+        return "Connected: no (" + components.count() + " components, largest has "
+                + components.size(components.largest()) + " vertices)";
     }
 
     private void calculateMST() {
         java.util.List<Edge> mstEdges = new ArrayList<>();
         edgeList.sort(Comparator.comparingInt(e -> e.cost));
 
+        DisjointSet sets = new DisjointSet(vertexCount);
         for (Edge edge : edgeList) {
-            int root1 = find(edge.v1);
-            int root2 = find(edge.v2);
+            int root1 = sets.find(edge.v1);
+            int root2 = sets.find(edge.v2);
             if (root1 != root2) {
                 mstEdges.add(edge);
-                union(root1, root2);
+                sets.union(root1, root2);
             }
         }
 
-        StringBuilder info = new StringBuilder();
-        info.append("Minimum Spanning Tree Edges:\n");
-        for (Edge edge : mstEdges) {
-            info.append("Edge: v").append(edge.v1).append(" - v").append(edge.v2)
-                    .append(" (Cost: ").append(edge.cost).append(")\n");
-        }
-        infoArea.setText(info.toString());
+        infoLog.clear();
+        infoLog.append("Minimum Spanning Tree Edges:");
+        infoLog.appendRows(mstEdges.size(), i -> describe(mstEdges.get(i)));
 
         graphPanel.setMSTData(mstEdges);
     }
 
     private void findArticulationPoints() {
-        int vertices = parent.length;
+        int vertices = vertexCount;
         boolean[] visited = new boolean[vertices];
         int[] discoveryTime = new int[vertices];
         int[] low = new int[vertices];
@@ -202,14 +194,16 @@ public class GraphGenerator extends JFrame {
         articulationPoints = ap;
 
         // Display articulation points
-        StringBuilder info = new StringBuilder();
-        info.append("Articulation Points:\n");
+        int[] points = new int[vertices];
+        int count = 0;
         for (int i = 0; i < vertices; i++) {
             if (ap[i]) {
-                info.append("Vertex: v").append(i).append("\n");
+                points[count++] = i;
             }
         }
-        infoArea.setText(info.toString());
+        infoLog.clear();
+        infoLog.append("Articulation Points:");
+        infoLog.appendRows(count, i -> "Vertex: v" + points[i]);
 
         graphPanel.setArticulationPoints(ap);
     }
@@ -252,7 +246,7 @@ public class GraphGenerator extends JFrame {
     private void findShortestPath() {
         int startVertex = Integer.parseInt(startVertexInput.getText());
         int endVertex = Integer.parseInt(endVertexInput.getText());
-        int vertices = parent.length;
+        int vertices = vertexCount;
 
         int[] dist = new int[vertices];
         int[] prev = new int[vertices];
@@ -290,191 +284,189 @@ public class GraphGenerator extends JFrame {
         }
         Collections.reverse(shortestPath);
 
-        StringBuilder info = new StringBuilder();
-        info.append("Shortest Path from v").append(startVertex).append(" to v").append(endVertex).append(":\n");
-        for (int vertex : shortestPath) {
-            info.append("v").append(vertex).append(" ");
-        }
-        info.append("\nTotal Cost: ").append(dist[endVertex]);
-        infoArea.setText(info.toString());
+        java.util.List<Integer> path = shortestPath;
+        infoLog.clear();
+        infoLog.append("Shortest Path from v" + startVertex + " to v" + endVertex + ":");
+        infoLog.appendRows(path.size(), i -> "v" + path.get(i));
+        infoLog.append("Total Cost: " + dist[endVertex]);
 
         graphPanel.setShortestPath(shortestPath);
     }
 
+    private static String describe(Edge edge) {
+        return "Edge: v" + edge.v1 + " - v" + edge.v2 + " (Cost: " + edge.cost + ")";
+    }
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             GraphGenerator frame = new GraphGenerator();
             frame.setVisible(true);
         });
     }
+
+    static class Edge {
+        final int id;
+        int v1, v2, cost;
+
+        public Edge(int id, int v1, int v2, int cost) {
+            this.id = id;
+            this.v1 = v1;
+            this.v2 = v2;
+            this.cost = cost;
+        }
+
+        public boolean connects(int v1, int v2) {
+            return (this.v1 == v1 && this.v2 == v2) || (this.v1 == v2 && this.v2 == v1);
+        }
+    }
+
+    static class Node {
+        int vertex, cost;
+
+        public Node(int vertex, int cost) {
+            this.vertex = vertex;
+            this.cost = cost;
+        }
+    }
 }
 
-class GraphPanel extends JPanel {
+class GraphPanel extends GraphCanvas {
+    private static final int RADIUS = 20;
+
     private int vertices;
-    private java.util.List<Edge> edges;
-    private java.util.List<Edge> mstEdges;
-    private boolean[] articulationPoints;
-    private java.util.List<Integer> shortestPath;
-    private Map<Integer, Point> vertexPositions;
+    private java.util.List<GraphGenerator.Edge> edges;
+    private GraphGenerator.Edge[] drawnEdges;
+    private EdgeIdMap edgeIds;
+    private final HighlightModel highlights = new HighlightModel();
+    private final ProgressiveLayout layout = new ProgressiveLayout();
 
-    public void setGraphData(int vertices, java.util.List<Edge> edges) {
+    public void setGraphData(int vertices, java.util.List<GraphGenerator.Edge> edges, EdgeIdMap edgeIds) {
         this.vertices = vertices;
         this.edges = edges;
-        this.mstEdges = null;
-        this.articulationPoints = null;
-        this.shortestPath = null;
-        calculateTreeLayout();
-        repaint();
+        this.edgeIds = edgeIds;
+        highlights.clear();
+        updateGeometry();
     }
 
-    public void setMSTData(java.util.List<Edge> mstEdges) {
-        this.mstEdges = mstEdges;
+    public void setMSTData(java.util.List<GraphGenerator.Edge> mstEdges) {
+        highlights.clear(HighlightModel.EdgeMark.MST);
+        for (GraphGenerator.Edge edge : mstEdges) {
+            highlights.mark(HighlightModel.EdgeMark.MST, edge.id);
+        }
         repaint();
     }
 
     public void setArticulationPoints(boolean[] articulationPoints) {
-        this.articulationPoints = articulationPoints;
+        highlights.clear(HighlightModel.VertexMark.CRITICAL);
+        for (int i = 0; i < articulationPoints.length; i++) {
+            if (articulationPoints[i]) {
+                highlights.mark(HighlightModel.VertexMark.CRITICAL, i);
+            }
+        }
         repaint();
     }
 
     public void setShortestPath(java.util.List<Integer> shortestPath) {
-        this.shortestPath = shortestPath;
+        highlights.markPath(shortestPath, edgeIds::get);
         repaint();
     }
 
-    private void calculateTreeLayout() {
-        vertexPositions = new HashMap<>();
-        int levelHeight = 80;
-        int levelWidth = getWidth() / (vertices + 1);
-
-        // 使用BFS生成樹狀佈局
-        Queue<Integer> queue = new LinkedList<>();
-        boolean[] visited = new boolean[vertices];
-        queue.offer(0); // 從頂點0開始
-        visited[0] = true;
-
-        int level = 0;
-        int nodesInCurrentLevel = 1;
-        int nodesInNextLevel = 0;
-        int nodeCount = 0;
-
-        while (!queue.isEmpty()) {
-            int v = queue.poll();
-            int x = levelWidth * (nodeCount + 1);
-            int y = levelHeight * (level + 1);
-            vertexPositions.put(v, new Point(x, y));
-
-            for (Edge edge : edges) {
-                int neighbor = (edge.v1 == v) ? edge.v2 : (edge.v2 == v ? edge.v1 : -1);
-                if (neighbor != -1 && !visited[neighbor]) {
-                    queue.offer(neighbor);
-                    visited[neighbor] = true;
-                    nodesInNextLevel++;
-                }
-            }
+    // Edges are indexed by id so sorting edgeList for the MST does not shuffle the spatial index or highlight bits
+    private void updateGeometry() {
+        drawnEdges = new GraphGenerator.Edge[edges.size()];
+        int[] from = new int[drawnEdges.length];
+        int[] to = new int[drawnEdges.length];
+        for (GraphGenerator.Edge edge : edges) {
+            drawnEdges[edge.id] = edge;
+            from[edge.id] = edge.v1;
+            to[edge.id] = edge.v2;
+        }
 
-            nodeCount++;
-            if (nodeCount == nodesInCurrentLevel) {
-                level++;
-                nodesInCurrentLevel = nodesInNextLevel;
-                nodesInNextLevel = 0;
-                nodeCount = 0;
+        // 使用BFS分層佈局，每個連通分量並排
+        // Computed on the layout thread so large graphs never block the EDT
+        int n = vertices;
+        int m = drawnEdges.length;
+        int width = getWidth(), height = getHeight();
+        setGeometry(null);
+        layout.start(new LayeredLayout(), AdjacencyIndex.build(n, from, to, m), new float[n], new float[n], (x, y) -> {
+            float[] fx = x.clone();
+            float[] fy = y.clone();
+            if (width > 0 && height > 0) {
+                Layouts.fit(n, fx, fy, width, height, RADIUS * 2);
             }
-        }
+            return new GraphGeometry(n, fx, fy, m, from, to);
+        }, frame -> setGeometry(frame.getGeometry()));
     }
 
+    // 繪製邊
     @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        if (vertices == 0 || edges == null || vertexPositions == null) return;
-
-        int radius = 20;
-
-        // 繪製邊
+    protected void drawEdge(Graphics2D g, int edge, int x1, int y1, int x2, int y2) {
         g.setColor(Color.BLUE);
-        for (Edge edge : edges) {
-            Point p1 = vertexPositions.get(edge.v1);
-            Point p2 = vertexPositions.get(edge.v2);
-            if (p1 != null && p2 != null) {
-                g.drawLine(p1.x, p1.y, p2.x, p2.y);
-                int midX = (p1.x + p2.x) / 2;
-                int midY = (p1.y + p2.y) / 2;
-                g.drawString(String.valueOf(edge.cost), midX, midY);
-            }
+        g.drawLine(x1, y1, x2, y2);
+        if (getLevelOfDetail().showsLabels()) {
+            g.drawString(String.valueOf(drawnEdges[edge].cost), (x1 + x2) / 2, (y1 + y2) / 2);
         }
+    }
 
-        // 繪製頂點
-        for (int i = 0; i < vertices; i++) {
-            Point p = vertexPositions.get(i);
-            if (p != null) {
-                g.setColor(Color.WHITE);
-                g.fillOval(p.x - radius / 2, p.y - radius / 2, radius, radius);
-                g.setColor(Color.BLACK);
-                g.drawOval(p.x - radius / 2, p.y - radius / 2, radius, radius);
-                g.drawString("v" + i, p.x - 10, p.y + 5);
-            }
+    // 繪製頂點
+    @Override
+    protected void drawVertex(Graphics2D g, int i, int x, int y) {
+        if (!getLevelOfDetail().showsVertexShapes()) {
+            g.setColor(Color.BLACK);
+            g.fillRect(x, y, 1, 1);
+            return;
         }
+        g.setColor(Color.WHITE);
+        g.fillOval(x - RADIUS / 2, y - RADIUS / 2, RADIUS, RADIUS);
+        g.setColor(Color.BLACK);
+        g.drawOval(x - RADIUS / 2, y - RADIUS / 2, RADIUS, RADIUS);
+        if (getLevelOfDetail().showsLabels()) {
+            g.drawString("v" + i, x - 10, y + 5);
+        }
+    }
+
+    @Override
+    protected void drawOverlay(Graphics2D g) {
+        GraphGeometry geometry = getGeometry();
+        if (geometry == null) return;
 
         // 繪製最小生成樹（如果有）
-        if (mstEdges != null) {
-            g.setColor(Color.RED);
-            for (Edge edge : mstEdges) {
-                Point p1 = vertexPositions.get(edge.v1);
-                Point p2 = vertexPositions.get(edge.v2);
-                if (p1 != null && p2 != null) {
-                    g.drawLine(p1.x, p1.y, p2.x, p2.y);
-                }
-            }
+        g.setColor(Color.RED);
+        for (int e = highlights.next(HighlightModel.EdgeMark.MST, 0); e >= 0; e = highlights.next(HighlightModel.EdgeMark.MST, e + 1)) {
+            drawSegment(g, geometry, e);
         }
 
         // 標記關節點（如果有）
-        if (articulationPoints != null) {
-            g.setColor(Color.GREEN);
-            for (int i = 0; i < articulationPoints.length; i++) {
-                if (articulationPoints[i]) {
-                    Point p = vertexPositions.get(i);
-                    if (p != null) {
-                        g.fillOval(p.x - radius / 2, p.y - radius / 2, radius, radius);
-                    }
-                }
+        g.setColor(Color.GREEN);
+        for (int i = highlights.next(HighlightModel.VertexMark.CRITICAL, 0); i >= 0; i = highlights.next(HighlightModel.VertexMark.CRITICAL, i + 1)) {
+            if (!geometry.hasPosition(i)) continue;
+            int x = screenX(i), y = screenY(i);
+            if (!isOnScreen(x, y, x, y)) continue;
+            if (getLevelOfDetail().showsVertexShapes()) {
+                g.fillOval(x - RADIUS / 2, y - RADIUS / 2, RADIUS, RADIUS);
+            } else {
+                g.fillRect(x, y, 1, 1);
             }
         }
 
         // 高亮最短路徑（如果有）
-        if (shortestPath != null && !shortestPath.isEmpty()) {
+        if (!highlights.isEmpty(HighlightModel.EdgeMark.PATH)) {
             g.setColor(Color.MAGENTA);
-            Graphics2D g2 = (Graphics2D) g;
-            g2.setStroke(new BasicStroke(3));
-            for (int i = 0; i < shortestPath.size() - 1; i++) {
-                Point p1 = vertexPositions.get(shortestPath.get(i));
-                Point p2 = vertexPositions.get(shortestPath.get(i + 1));
-                if (p1 != null && p2 != null) {
-                    g2.drawLine(p1.x, p1.y, p2.x, p2.y);
-                }
+            Stroke stroke = g.getStroke();
+            g.setStroke(new BasicStroke(3));
+            for (int e = highlights.next(HighlightModel.EdgeMark.PATH, 0); e >= 0; e = highlights.next(HighlightModel.EdgeMark.PATH, e + 1)) {
+                drawSegment(g, geometry, e);
             }
+            g.setStroke(stroke);
         }
     }
-}
-
-class Edge {
-    int v1, v2, cost;
-
-    public Edge(int v1, int v2, int cost) {
-        this.v1 = v1;
-        this.v2 = v2;
-        this.cost = cost;
-    }
-
-    public boolean connects(int v1, int v2) {
-        return (this.v1 == v1 && this.v2 == v2) || (this.v1 == v2 && this.v2 == v1);
-    }
-}
 
-class Node {
-    int vertex, cost;
-
-    public Node(int vertex, int cost) {
-        this.vertex = vertex;
-        this.cost = cost;
+    private void drawSegment(Graphics2D g, GraphGeometry geometry, int edge) {
+        int u = geometry.getFrom(edge), v = geometry.getTo(edge);
+        if (!geometry.hasPosition(u) || !geometry.hasPosition(v)) return;
+        int x1 = screenX(u), y1 = screenY(u), x2 = screenX(v), y2 = screenY(v);
+        if (isOnScreen(x1, y1, x2, y2)) {
+            g.drawLine(x1, y1, x2, y2);
+        }
     }
 }
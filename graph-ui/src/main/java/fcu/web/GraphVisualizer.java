@@ -1,3 +1,5 @@
+package fcu.web;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -6,7 +8,7 @@ import java.util.Random;
 
 public class GraphVisualizer extends JFrame {
     private JTextField vertexField, edgeField;
-    private JTextArea outputArea;
+    private final OutputLog outputLog = new OutputLog();
     private JPanel graphPanel;
     private int vertexCount, edgeCount;
     private int[][] graph;
@@ -36,10 +38,7 @@ public class GraphVisualizer extends JFrame {
         add(inputPanel, BorderLayout.NORTH);
 
         // Output Panel
-        outputArea = new JTextArea(10, 30);
-        outputArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(outputArea);
-        add(scrollPane, BorderLayout.EAST);
+        add(new OutputLogPanel(outputLog, 10), BorderLayout.EAST);
 
         // Graph Panel
         graphPanel = new JPanel() {
@@ -58,13 +57,13 @@ public class GraphVisualizer extends JFrame {
                     vertexCount = Integer.parseInt(vertexField.getText());
                     edgeCount = Integer.parseInt(edgeField.getText());
                     if (vertexCount <= 0 || edgeCount <= 0) {
-                        outputArea.append("Number of vertices and edges must be greater than zero.\n");
+                        outputLog.append("Number of vertices and edges must be greater than zero.");
                         return;
                     }
                     generateGraph();
                     repaint();
                 } catch (NumberFormatException ex) {
-                    outputArea.append("Invalid input. Please enter valid numbers.\n");
+                    outputLog.append("Invalid input. Please enter valid numbers.");
                 }
             }
         });
@@ -74,8 +73,9 @@ public class GraphVisualizer extends JFrame {
         Random random = new Random();
         graph = new int[vertexCount][vertexCount];
 
-        outputArea.setText("");
-        outputArea.append("Graph Details:\n");
+        EdgeTable edges = new EdgeTable(edgeCount);
+        outputLog.clear();
+        outputLog.append("Graph Details:");
 
         for (int i = 0; i < edgeCount; i++) {
             int v1 = random.nextInt(vertexCount);
@@ -84,11 +84,12 @@ public class GraphVisualizer extends JFrame {
                 int cost = random.nextInt(99) + 1;
                 graph[v1][v2] = cost;
                 graph[v2][v1] = cost;
-                outputArea.append("Edge: v" + v1 + " - v" + v2 + " Cost: " + cost + "\n");
+                edges.add(v1, v2, cost);
             } else {
                 i--; // Retry if the edge is not valid (self-loop or duplicate)
             }
         }
+        outputLog.appendRows(edges.size(), edges::describe);
     }
 
     private void drawGraph(Graphics g) {
@@ -100,12 +101,12 @@ public class GraphVisualizer extends JFrame {
         int centerX = panelWidth / 2;
         int centerY = panelHeight / 2;
 
-        Point[] points = new Point[vertexCount];
+        float[] vertexX = new float[vertexCount];
+        float[] vertexY = new float[vertexCount];
+        Layouts.circle(vertexCount, centerX, centerY, radius, vertexX, vertexY);
         for (int i = 0; i < vertexCount; i++) {
-            double angle = 2 * Math.PI * i / vertexCount;
-            int x = centerX + (int) (radius * Math.cos(angle));
-            int y = centerY + (int) (radius * Math.sin(angle));
-            points[i] = new Point(x, y);
+            int x = (int) vertexX[i];
+            int y = (int) vertexY[i];
             g.fillOval(x - 10, y - 10, 20, 20);
             g.drawString("v" + i, x - 15, y - 15);
         }
@@ -113,9 +114,9 @@ public class GraphVisualizer extends JFrame {
         for (int i = 0; i < vertexCount; i++) {
             for (int j = i + 1; j < vertexCount; j++) {
                 if (graph[i][j] != 0) {
-                    g.drawLine(points[i].x, points[i].y, points[j].x, points[j].y);
-                    int midX = (points[i].x + points[j].x) / 2;
-                    int midY = (points[i].y + points[j].y) / 2;
+                    g.drawLine((int) vertexX[i], (int) vertexY[i], (int) vertexX[j], (int) vertexY[j]);
+                    int midX = ((int) vertexX[i] + (int) vertexX[j]) / 2;
+                    int midY = ((int) vertexY[i] + (int) vertexY[j]) / 2;
                     g.drawString(String.valueOf(graph[i][j]), midX, midY);
                 }
             }
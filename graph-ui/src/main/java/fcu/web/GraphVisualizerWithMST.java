@@ -9,11 +9,12 @@ import java.util.Random;
 
 public class GraphVisualizerWithMST extends JFrame {
     private JTextField vertexField, edgeField;
-    private JTextArea outputArea;
+    private final OutputLog outputLog = new OutputLog();
     private JPanel graphPanel;
     private int vertexCount, edgeCount;
     private int[][] graph;
-    private boolean[][] mstEdges;
+    private EdgeTable edges;
+    private final HighlightModel highlights = new HighlightModel();
 
     public GraphVisualizerWithMST() {
         setTitle("Graph Visualizer with MST");
@@ -43,10 +44,7 @@ public class GraphVisualizerWithMST extends JFrame {
         add(inputPanel, BorderLayout.NORTH);
 
         // Output Panel
-        outputArea = new JTextArea(10, 30);
-        outputArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(outputArea);
-        add(scrollPane, BorderLayout.EAST);
+        add(new OutputLogPanel(outputLog, 10), BorderLayout.EAST);
 
         // Graph Panel
         graphPanel = new JPanel() {
@@ -65,14 +63,14 @@ public class GraphVisualizerWithMST extends JFrame {
                     vertexCount = Integer.parseInt(vertexField.getText());
                     edgeCount = Integer.parseInt(edgeField.getText());
                     if (vertexCount <= 0 || edgeCount <= 0) {
-                        outputArea.append("Number of vertices and edges must be greater than zero.\n");
+                        outputLog.append("Number of vertices and edges must be greater than zero.");
                         return;
                     }
                     generateGraph();
-                    mstEdges = null;
+                    highlights.clear();
                     repaint();
                 } catch (NumberFormatException ex) {
-                    outputArea.append("Invalid input. Please enter valid numbers.\n");
+                    outputLog.append("Invalid input. Please enter valid numbers.");
                 }
             }
         });
@@ -84,7 +82,7 @@ public class GraphVisualizerWithMST extends JFrame {
                     computeMST();
                     repaint();
                 } else {
-                    outputArea.append("Please generate a graph first.\n");
+                    outputLog.append("Please generate a graph first.");
                 }
             }
         });
@@ -93,8 +91,9 @@ public class GraphVisualizerWithMST extends JFrame {
     private void generateGraph() {
         Random random = new Random();
         graph = new int[vertexCount][vertexCount];
-        outputArea.setText("");
-        outputArea.append("Graph Details:\n");
+        edges = new EdgeTable(edgeCount);
+        outputLog.clear();
+        outputLog.append("Graph Details:");
 
         for (int i = 0; i < edgeCount; i++) {
             int v1 = random.nextInt(vertexCount);
@@ -103,11 +102,13 @@ public class GraphVisualizerWithMST extends JFrame {
                 int cost = random.nextInt(99) + 1;
                 graph[v1][v2] = cost;
                 graph[v2][v1] = cost;
-                outputArea.append("Edge: v" + v1 + " - v" + v2 + " Cost: " + cost + "\n");
+                edges.add(v1, v2, cost);
             } else {
                 i--; // Retry if the edge is not valid (self-loop or duplicate)
             }
         }
+        EdgeTable listed = edges;
+        outputLog.appendRows(listed.size(), listed::describe);
     }
 
     private void drawGraph(Graphics g) {
@@ -119,35 +120,33 @@ public class GraphVisualizerWithMST extends JFrame {
         int centerX = panelWidth / 2;
         int centerY = panelHeight / 2;
 
-        Point[] points = new Point[vertexCount];
+        float[] vertexX = new float[vertexCount];
+        float[] vertexY = new float[vertexCount];
+        Layouts.circle(vertexCount, centerX, centerY, radius, vertexX, vertexY);
         for (int i = 0; i < vertexCount; i++) {
-            double angle = 2 * Math.PI * i / vertexCount;
-            int x = centerX + (int) (radius * Math.cos(angle));
-            int y = centerY + (int) (radius * Math.sin(angle));
-            points[i] = new Point(x, y);
+            int x = (int) vertexX[i];
+            int y = (int) vertexY[i];
             g.fillOval(x - 10, y - 10, 20, 20);
             g.drawString("v" + i, x - 15, y - 15);
         }
 
-        for (int i = 0; i < vertexCount; i++) {
-            for (int j = i + 1; j < vertexCount; j++) {
-                if (graph[i][j] != 0) {
-                    if (mstEdges != null && mstEdges[i][j]) {
-                        g.setColor(Color.RED); // Highlight MST edges
-                    } else {
-                        g.setColor(Color.BLACK);
-                    }
-                    g.drawLine(points[i].x, points[i].y, points[j].x, points[j].y);
-                    int midX = (points[i].x + points[j].x) / 2;
-                    int midY = (points[i].y + points[j].y) / 2;
-                    g.drawString(String.valueOf(graph[i][j]), midX, midY);
-                }
+        for (int e = 0; e < edges.size(); e++) {
+            int i = edges.getFrom(e);
+            int j = edges.getTo(e);
+            if (highlights.has(HighlightModel.EdgeMark.MST, e)) {
+                g.setColor(Color.RED); // Highlight MST edges
+            } else {
+                g.setColor(Color.BLACK);
             }
+            g.drawLine((int) vertexX[i], (int) vertexY[i], (int) vertexX[j], (int) vertexY[j]);
+            int midX = ((int) vertexX[i] + (int) vertexX[j]) / 2;
+            int midY = ((int) vertexY[i] + (int) vertexY[j]) / 2;
+            g.drawString(String.valueOf(edges.getWeight(e)), midX, midY);
         }
     }
 
     private void computeMST() {
-        mstEdges = new boolean[vertexCount][vertexCount];
+        highlights.clear(HighlightModel.EdgeMark.MST);
         boolean[] inMST = new boolean[vertexCount];
         PriorityQueue<Edge> pq = new PriorityQueue<>((e1, e2) -> Integer.compare(e1.cost, e2.cost));
         inMST[0] = true;
@@ -158,16 +157,19 @@ public class GraphVisualizerWithMST extends JFrame {
             }
         }
 
-        outputArea.append("\nMinimum Spanning Tree Edges:\n");
+        outputLog.append("");
+        outputLog.append("Minimum Spanning Tree Edges:");
+        int[] mstEdges = new int[Math.max(0, vertexCount - 1)];
+        int mstSize = 0;
 
         while (!pq.isEmpty()) {
             Edge edge = pq.poll();
             if (inMST[edge.v2]) continue;
 
             inMST[edge.v2] = true;
-            mstEdges[edge.v1][edge.v2] = true;
-            mstEdges[edge.v2][edge.v1] = true;
-            outputArea.append("Edge: v" + edge.v1 + " - v" + edge.v2 + " Cost: " + edge.cost + "\n");
+            int id = edges.id(edge.v1, edge.v2);
+            highlights.mark(HighlightModel.EdgeMark.MST, id);
+            mstEdges[mstSize++] = id;
 
             for (int i = 0; i < vertexCount; i++) {
                 if (!inMST[i] && graph[edge.v2][i] != 0) {
@@ -175,6 +177,8 @@ public class GraphVisualizerWithMST extends JFrame {
                 }
             }
         }
+        EdgeTable listed = edges;
+        outputLog.appendRows(mstSize, i -> listed.describe(mstEdges[i]));
     }
 
     public static void main(String[] args) {
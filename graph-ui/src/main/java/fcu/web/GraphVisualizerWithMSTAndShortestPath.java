@@ -9,16 +9,15 @@ import java.util.*;
 public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
 
     private JTextField vertexField, edgeField;
-    private JTextArea outputArea;
-    private JPanel graphPanel;
+    private final OutputLog outputLog = new OutputLog();
+    private GraphCanvas graphPanel;
     private int vertexCount, edgeCount;
     private int[][] graph;
-    private boolean[][] mstEdges;
-    private Point[] points;
+    private EdgeTable edges;
+    private final HighlightModel highlights = new HighlightModel();
+    private final ProgressiveLayout layout = new ProgressiveLayout();
     private JTextField pointAField, pointBField;
     private int startVertex, endVertex;
-    private boolean[][] shortestPathEdges;
-    private Set<Integer> criticalPoints;
 
     public GraphVisualizerWithMSTAndShortestPath() {
         setTitle("Graph Visualizer with MST, Shortest Path, and Critical Points");
@@ -60,17 +59,25 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
         add(inputPanel, BorderLayout.NORTH);
 
         // Output Panel
-        outputArea = new JTextArea(10, 30);
-        outputArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(outputArea);
-        add(scrollPane, BorderLayout.EAST);
+        add(new OutputLogPanel(outputLog, 10), BorderLayout.EAST);
 
         // Graph Panel
-        graphPanel = new JPanel() {
+        graphPanel = new GraphCanvas() {
             @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                drawGraph(g);
+            protected void drawEdge(Graphics2D g, int edge, int x1, int y1, int x2, int y2) {
+                g.setColor(Color.BLACK);
+                g.setStroke(new BasicStroke(1));  // Regular for other edges
+                GraphVisualizerWithMSTAndShortestPath.this.drawEdge(g, getGeometry().getFrom(edge), getGeometry().getTo(edge), x1, y1, x2, y2);
+            }
+
+            @Override
+            protected void drawVertex(Graphics2D g, int vertex, int x, int y) {
+                GraphVisualizerWithMSTAndShortestPath.this.drawVertex(g, vertex, x, y, Color.BLUE);
+            }
+
+            @Override
+            protected void drawOverlay(Graphics2D g) {
+                drawHighlights(g);
             }
         };
         add(graphPanel, BorderLayout.CENTER);
@@ -82,16 +89,14 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
                     vertexCount = Integer.parseInt(vertexField.getText());
                     edgeCount = Integer.parseInt(edgeField.getText());
                     if (vertexCount <= 0 || edgeCount <= 0) {
-                        outputArea.append("Number of vertices and edges must be greater than zero.\n");
+                        outputLog.append("Number of vertices and edges must be greater than zero.");
                         return;
                     }
                     generateGraph();
-                    mstEdges = null;
-                    shortestPathEdges = null;
-                    criticalPoints = null;
+                    highlights.clear();
                     repaint();
                 } catch (NumberFormatException ex) {
-                    outputArea.append("Invalid input. Please enter valid numbers.\n");
+                    outputLog.append("Invalid input. Please enter valid numbers.");
                 }
             }
         });
@@ -103,7 +108,7 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
                     computeSpanningTree();
                     repaint();
                 } else {
-                    outputArea.append("Please generate a graph first.\n");
+                    outputLog.append("Please generate a graph first.");
                 }
             }
         });
@@ -119,13 +124,13 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
                             computeShortestPath();
                             repaint();
                         } else {
-                            outputArea.append("Invalid vertices. Please enter valid vertex indices.\n");
+                            outputLog.append("Invalid vertices. Please enter valid vertex indices.");
                         }
                     } catch (NumberFormatException ex) {
-                        outputArea.append("Invalid input. Please enter valid numbers.\n");
+                        outputLog.append("Invalid input. Please enter valid numbers.");
                     }
                 } else {
-                    outputArea.append("Please generate a graph first.\n");
+                    outputLog.append("Please generate a graph first.");
                 }
             }
         });
@@ -137,7 +142,7 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
                     findCriticalPoints();
                     repaint();
                 } else {
-                    outputArea.append("Please generate a graph first.\n");
+                    outputLog.append("Please generate a graph first.");
                 }
             }
         });
@@ -146,9 +151,9 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
     private void generateGraph() {
         Random random = new Random();
         graph = new int[vertexCount][vertexCount];
-        points = new Point[vertexCount];
-        outputArea.setText("");
-        outputArea.append("Graph Details:\n");
+        edges = new EdgeTable(edgeCount);
+        outputLog.clear();
+        outputLog.append("Graph Details:");
 
         // Generate a connected graph
         for (int i = 1; i < vertexCount; i++) {
@@ -156,7 +161,7 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
             int cost = random.nextInt(99) + 1;
             graph[i][connectedTo] = cost;
             graph[connectedTo][i] = cost;
-            outputArea.append("Edge: v" + i + " - v" + connectedTo + " Cost: " + cost + "\n");
+            edges.add(i, connectedTo, cost);
         }
 
         // Add remaining edges
@@ -167,67 +172,104 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
                 int cost = random.nextInt(99) + 1;
                 graph[v1][v2] = cost;
                 graph[v2][v1] = cost;
-                outputArea.append("Edge: v" + v1 + " - v" + v2 + " Cost: " + cost + "\n");
+                edges.add(v1, v2, cost);
             } else {
                 i--; // Retry if the edge is not valid (self-loop or duplicate)
             }
         }
+        EdgeTable listed = edges;
+        outputLog.appendRows(listed.size(), listed::describe);
 
-        // Generate random positions for vertices
+        // Random positions are shown right away and seed the force-directed layout, whose frames replace them
         int panelWidth = graphPanel.getWidth();
         int panelHeight = graphPanel.getHeight();
-        for (int i = 0; i < vertexCount; i++) {
-            int x = random.nextInt(panelWidth - 40) + 20;
-            int y = random.nextInt(panelHeight - 40) + 20;
-            points[i] = new Point(x, y);
-        }
+        int n = vertexCount;
+        int m = edges.size();
+        float[] vertexX = new float[n];
+        float[] vertexY = new float[n];
+        Layouts.random(n, panelWidth, panelHeight, 20, random, vertexX, vertexY);
+        int[] from = edges.fromArray();
+        int[] to = edges.toArray();
+        graphPanel.setGeometry(new GraphGeometry(n, vertexX.clone(), vertexY.clone(), m, from, to));
+        layout.start(new ForceDirectedLayout(), AdjacencyIndex.build(n, from, to, m), vertexX, vertexY, (x, y) -> {
+            float[] fx = x.clone();
+            float[] fy = y.clone();
+            Layouts.fit(n, fx, fy, panelWidth, panelHeight, 20);
+            return new GraphGeometry(n, fx, fy, m, from, to);
+        }, frame -> graphPanel.setGeometry(frame.getGeometry()));
     }
 
-    private void drawGraph(Graphics g) {
-        if (graph == null) return;
+    private void drawEdge(Graphics2D g2d, int i, int j, int x1, int y1, int x2, int y2) {
+        g2d.drawLine(x1, y1, x2, y2);
 
-        Graphics2D g2d = (Graphics2D) g; // Use Graphics2D for better control
+        if (!graphPanel.getLevelOfDetail().showsLabels()) return;
+        // Draw the cost label in the middle of the edge
+        int midX = (x1 + x2) / 2;
+        int midY = (y1 + y2) / 2;
+        g2d.setColor(Color.BLACK);
+        g2d.drawString(String.valueOf(graph[i][j]), midX, midY);
+    }
 
-        // Draw edges
-        for (int i = 0; i < vertexCount; i++) {
-            for (int j = i + 1; j < vertexCount; j++) {
-                if (graph[i][j] != 0) {
-                    if (shortestPathEdges != null && shortestPathEdges[i][j]) {
-                        g2d.setColor(Color.GREEN);
-                        g2d.setStroke(new BasicStroke(3));  // Bold for shortest path
-                    } else if (mstEdges != null && mstEdges[i][j]) {
-                        g2d.setColor(Color.RED);
-                        g2d.setStroke(new BasicStroke(4));  // Bold for MST
-                    } else {
-                        g2d.setColor(Color.BLACK);
-                        g2d.setStroke(new BasicStroke(1));  // Regular for other edges
-                    }
-                    g2d.drawLine(points[i].x, points[i].y, points[j].x, points[j].y);
+    private void drawVertex(Graphics2D g2d, int i, int x, int y, Color color) {
+        g2d.setColor(color);
+        LevelOfDetail detail = graphPanel.getLevelOfDetail();
+        if (!detail.showsVertexShapes()) {
+            g2d.fillRect(x, y, 1, 1);
+            return;
+        }
+        g2d.fillOval(x - 10, y - 10, 20, 20);
+        if (detail.showsLabels()) {
+            g2d.setColor(Color.WHITE);
+            g2d.drawString("v" + i, x - 5, y + 5);
+        }
+    }
 
-                    // Draw the cost label in the middle of the edge
-                    int midX = (points[i].x + points[j].x) / 2;
-                    int midY = (points[i].y + points[j].y) / 2;
-                    g2d.setColor(Color.BLACK);
-                    g2d.drawString(String.valueOf(graph[i][j]), midX, midY);
-                }
+    // Highlights are drawn over the cached base layer; MST first so the path stays on top
+    private void drawHighlights(Graphics2D g2d) {
+        if (graphPanel.getGeometry() == null) return;
+
+        Stroke stroke = g2d.getStroke();
+        g2d.setStroke(new BasicStroke(4));  // Bold for MST
+        for (int e = highlights.next(HighlightModel.EdgeMark.MST, 0); e >= 0; e = highlights.next(HighlightModel.EdgeMark.MST, e + 1)) {
+            if (!highlights.has(HighlightModel.EdgeMark.PATH, e)) {
+                drawHighlightedEdge(g2d, e, Color.RED);
             }
         }
+        g2d.setStroke(new BasicStroke(3));  // Bold for shortest path
+        for (int e = highlights.next(HighlightModel.EdgeMark.PATH, 0); e >= 0; e = highlights.next(HighlightModel.EdgeMark.PATH, e + 1)) {
+            drawHighlightedEdge(g2d, e, Color.GREEN);
+        }
+        g2d.setStroke(stroke);
 
-        // Draw vertices
-        for (int i = 0; i < vertexCount; i++) {
-            if (criticalPoints != null && criticalPoints.contains(i)) {
-                g2d.setColor(Color.ORANGE);  // Highlight critical points
-            } else {
-                g2d.setColor(Color.BLUE);  // Normal vertices
-            }
-            g2d.fillOval(points[i].x - 10, points[i].y - 10, 20, 20);
-            g2d.setColor(Color.WHITE);
-            g2d.drawString("v" + i, points[i].x - 5, points[i].y + 5);
+        for (int i = highlights.next(HighlightModel.VertexMark.CRITICAL, 0); i >= 0; i = highlights.next(HighlightModel.VertexMark.CRITICAL, i + 1)) {
+            drawHighlightedVertex(g2d, i);
+        }
+    }
+
+    private void drawHighlightedEdge(Graphics2D g2d, int edge, Color color) {
+        int i = edges.getFrom(edge), j = edges.getTo(edge);
+        int x1 = graphPanel.screenX(i), y1 = graphPanel.screenY(i);
+        int x2 = graphPanel.screenX(j), y2 = graphPanel.screenY(j);
+        if (!graphPanel.isOnScreen(x1, y1, x2, y2)) return;
+        g2d.setColor(color);
+        drawEdge(g2d, i, j, x1, y1, x2, y2);
+        // Keep the endpoints on top of the bold line
+        drawHighlightedVertex(g2d, i);
+        drawHighlightedVertex(g2d, j);
+    }
+
+    private void drawHighlightedVertex(Graphics2D g2d, int i) {
+        int x = graphPanel.screenX(i), y = graphPanel.screenY(i);
+        if (!graphPanel.isOnScreen(x, y, x, y)) return;
+        if (highlights.has(HighlightModel.VertexMark.CRITICAL, i)) {
+            drawVertex(g2d, i, x, y, Color.ORANGE);  // Highlight critical points
+        } else {
+            drawVertex(g2d, i, x, y, Color.BLUE);  // Normal vertices
         }
     }
 
     private void computeSpanningTree() {
-        mstEdges = new boolean[vertexCount][vertexCount];
+        highlights.clear(HighlightModel.EdgeMark.MST);
         boolean[] inMST = new boolean[vertexCount];
         PriorityQueue<Edge> pq = new PriorityQueue<>((e1, e2) -> Integer.compare(e1.cost, e2.cost));
 
@@ -238,15 +280,18 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
             }
         }
 
-        outputArea.append("\nSpanning Tree Edges:\n");
+        outputLog.append("");
+        outputLog.append("Spanning Tree Edges:");
+        int[] mstEdges = new int[Math.max(0, vertexCount - 1)];
+        int mstSize = 0;
         while (!pq.isEmpty() && pq.size() < vertexCount) {
             Edge edge = pq.poll();
             if (inMST[edge.v2]) continue;
 
             inMST[edge.v2] = true;
-            mstEdges[edge.v1][edge.v2] = true;
-            mstEdges[edge.v2][edge.v1] = true;
-            outputArea.append("Edge: v" + edge.v1 + " - v" + edge.v2 + " Cost: " + edge.cost + "\n");
+            int id = edges.id(edge.v1, edge.v2);
+            highlights.mark(HighlightModel.EdgeMark.MST, id);
+            mstEdges[mstSize++] = id;
 
             for (int i = 0; i < vertexCount; i++) {
                 if (!inMST[i] && graph[edge.v2][i] != 0) {
@@ -254,6 +299,8 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
                 }
             }
         }
+        EdgeTable listed = edges;
+        outputLog.appendRows(mstSize, i -> listed.describe(mstEdges[i]));
     }
 
     private void computeShortestPath() {
@@ -289,26 +336,27 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
         }
 
         // Trace the shortest path
-        shortestPathEdges = new boolean[vertexCount][vertexCount];
+        highlights.clear(HighlightModel.EdgeMark.PATH);
         for (int at = endVertex; at != -1; at = prev[at]) {
             if (prev[at] != -1) {
-                shortestPathEdges[at][prev[at]] = true;
-                shortestPathEdges[prev[at]][at] = true;
+                highlights.mark(HighlightModel.EdgeMark.PATH, edges.id(at, prev[at]));
             }
         }
 
-        outputArea.append("\nShortest Path from v" + startVertex + " to v" + endVertex + ":\n");
-        int at = endVertex;
-        while (at != -1) {
-            if (prev[at] != -1) {
-                outputArea.append("Edge: v" + prev[at] + " - v" + at + " Cost: " + graph[prev[at]][at] + "\n");
-            }
-            at = prev[at];
+        outputLog.append("");
+        outputLog.append("Shortest Path from v" + startVertex + " to v" + endVertex + ":");
+        // Path edges from the end vertex back, listed lazily
+        int[] path = new int[vertexCount];
+        int length = 0;
+        for (int at = endVertex; at != -1 && prev[at] != -1; at = prev[at]) {
+            path[length++] = at;
         }
+        int[][] costs = graph;
+        outputLog.appendRows(length, i -> "Edge: v" + prev[path[i]] + " - v" + path[i] + " Cost: " + costs[prev[path[i]]][path[i]]);
     }
 
     private void findCriticalPoints() {
-        criticalPoints = new HashSet<>();
+        highlights.clear(HighlightModel.VertexMark.CRITICAL);
         boolean[] visited = new boolean[vertexCount];
         int[] disc = new int[vertexCount];
         int[] low = new int[vertexCount];
@@ -325,10 +373,15 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
             }
         }
 
-        outputArea.append("\nCritical Points:\n");
-        for (int point : criticalPoints) {
-            outputArea.append("v" + point + "\n");
+        outputLog.append("");
+        outputLog.append("Critical Points:");
+        int[] points = new int[vertexCount];
+        int count = 0;
+        for (int point = highlights.next(HighlightModel.VertexMark.CRITICAL, 0); point >= 0;
+             point = highlights.next(HighlightModel.VertexMark.CRITICAL, point + 1)) {
+            points[count++] = point;
         }
+        outputLog.appendRows(count, i -> "v" + points[i]);
     }
 
     private void dfsArticulationPoint(int u, boolean[] visited, int[] disc, int[] low, int[] parent, int time) {
@@ -346,11 +399,11 @@ public class GraphVisualizerWithMSTAndShortestPath extends JFrame {
                     low[u] = Math.min(low[u], low[v]);
 
                     if (parent[u] == -1 && children > 1) {
-                        criticalPoints.add(u);
+                        highlights.mark(HighlightModel.VertexMark.CRITICAL, u);
                     }
 
                     if (parent[u] != -1 && low[v] >= disc[u]) {
-                        criticalPoints.add(u);
+                        highlights.mark(HighlightModel.VertexMark.CRITICAL, u);
                     }
                 } else if (v != parent[u]) {
                     low[u] = Math.min(low[u], disc[v]);
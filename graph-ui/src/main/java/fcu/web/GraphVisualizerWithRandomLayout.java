@@ -9,11 +9,13 @@ import java.util.Random;
 
 public class GraphVisualizerWithRandomLayout extends JFrame {
     private JTextField vertexField, edgeField;
-    private JTextArea outputArea;
+    private final OutputLog outputLog = new OutputLog();
     private JPanel graphPanel;
     private int vertexCount, edgeCount;
     private int[][] graph;
-    private boolean[][] mstEdges;
+    private EdgeTable edges;
+    private float[] vertexX, vertexY;
+    private final HighlightModel highlights = new HighlightModel();
 
     public GraphVisualizerWithRandomLayout() {
         setTitle("Graph Visualizer with Random Layout");
@@ -43,10 +45,7 @@ public class GraphVisualizerWithRandomLayout extends JFrame {
         add(inputPanel, BorderLayout.NORTH);
 
         // Output Panel
-        outputArea = new JTextArea(10, 30);
-        outputArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(outputArea);
-        add(scrollPane, BorderLayout.EAST);
+        add(new OutputLogPanel(outputLog, 10), BorderLayout.EAST);
 
         // Graph Panel
         graphPanel = new JPanel() {
@@ -65,14 +64,14 @@ public class GraphVisualizerWithRandomLayout extends JFrame {
                     vertexCount = Integer.parseInt(vertexField.getText());
                     edgeCount = Integer.parseInt(edgeField.getText());
                     if (vertexCount <= 0 || edgeCount <= 0) {
-                        outputArea.append("Number of vertices and edges must be greater than zero.\n");
+                        outputLog.append("Number of vertices and edges must be greater than zero.");
                         return;
                     }
                     generateGraph();
-                    mstEdges = null;
+                    highlights.clear();
                     repaint();
                 } catch (NumberFormatException ex) {
-                    outputArea.append("Invalid input. Please enter valid numbers.\n");
+                    outputLog.append("Invalid input. Please enter valid numbers.");
                 }
             }
         });
@@ -84,7 +83,7 @@ public class GraphVisualizerWithRandomLayout extends JFrame {
                     computeSpanningTree();
                     repaint();
                 } else {
-                    outputArea.append("Please generate a graph first.\n");
+                    outputLog.append("Please generate a graph first.");
                 }
             }
         });
@@ -93,8 +92,9 @@ public class GraphVisualizerWithRandomLayout extends JFrame {
     private void generateGraph() {
         Random random = new Random();
         graph = new int[vertexCount][vertexCount];
-        outputArea.setText("");
-        outputArea.append("Graph Details:\n");
+        edges = new EdgeTable(edgeCount);
+        outputLog.clear();
+        outputLog.append("Graph Details:");
 
         for (int i = 0; i < edgeCount; i++) {
             int v1 = random.nextInt(vertexCount);
@@ -103,51 +103,49 @@ public class GraphVisualizerWithRandomLayout extends JFrame {
                 int cost = random.nextInt(99) + 1;
                 graph[v1][v2] = cost;
                 graph[v2][v1] = cost;
-                outputArea.append("Edge: v" + v1 + " - v" + v2 + " Cost: " + cost + "\n");
+                edges.add(v1, v2, cost);
             } else {
                 i--; // Retry if the edge is not valid (self-loop or duplicate)
             }
         }
+        EdgeTable listed = edges;
+        outputLog.appendRows(listed.size(), listed::describe);
+
+        // Randomly place vertices, with padding from the edges
+        vertexX = new float[vertexCount];
+        vertexY = new float[vertexCount];
+        Layouts.random(vertexCount, graphPanel.getWidth(), graphPanel.getHeight(), 20, random, vertexX, vertexY);
     }
 
     private void drawGraph(Graphics g) {
         if (graph == null) return;
 
-        int panelWidth = graphPanel.getWidth();
-        int panelHeight = graphPanel.getHeight();
-
-        Point[] points = new Point[vertexCount];
-        Random random = new Random();
-
-        // Randomly place vertices
+        // Vertices were placed randomly once in generateGraph, so repaints do not reshuffle them
         for (int i = 0; i < vertexCount; i++) {
-            int x = random.nextInt(panelWidth - 40) + 20; // Ensures padding from the edges
-            int y = random.nextInt(panelHeight - 40) + 20;
-            points[i] = new Point(x, y);
+            int x = (int) vertexX[i];
+            int y = (int) vertexY[i];
             g.fillOval(x - 10, y - 10, 20, 20);
             g.drawString("v" + i, x - 15, y - 15);
         }
 
         // Draw edges
-        for (int i = 0; i < vertexCount; i++) {
-            for (int j = i + 1; j < vertexCount; j++) {
-                if (graph[i][j] != 0) {
-                    if (mstEdges != null && mstEdges[i][j]) {
-                        g.setColor(Color.RED); // Highlight Spanning Tree edges
-                    } else {
-                        g.setColor(Color.BLACK);
-                    }
-                    g.drawLine(points[i].x, points[i].y, points[j].x, points[j].y);
-                    int midX = (points[i].x + points[j].x) / 2;
-                    int midY = (points[i].y + points[j].y) / 2;
-                    g.drawString(String.valueOf(graph[i][j]), midX, midY);
-                }
+        for (int e = 0; e < edges.size(); e++) {
+            int i = edges.getFrom(e);
+            int j = edges.getTo(e);
+            if (highlights.has(HighlightModel.EdgeMark.MST, e)) {
+                g.setColor(Color.RED); // Highlight Spanning Tree edges
+            } else {
+                g.setColor(Color.BLACK);
             }
+            g.drawLine((int) vertexX[i], (int) vertexY[i], (int) vertexX[j], (int) vertexY[j]);
+            int midX = ((int) vertexX[i] + (int) vertexX[j]) / 2;
+            int midY = ((int) vertexY[i] + (int) vertexY[j]) / 2;
+            g.drawString(String.valueOf(edges.getWeight(e)), midX, midY);
         }
     }
 
     private void computeSpanningTree() {
-        mstEdges = new boolean[vertexCount][vertexCount];
+        highlights.clear(HighlightModel.EdgeMark.MST);
         boolean[] inMST = new boolean[vertexCount];
         PriorityQueue<Edge> pq = new PriorityQueue<>((e1, e2) -> Integer.compare(e1.cost, e2.cost));
         inMST[0] = true;
@@ -158,16 +156,19 @@ public class GraphVisualizerWithRandomLayout extends JFrame {
             }
         }
 
-        outputArea.append("\nSpanning Tree Edges:\n");
+        outputLog.append("");
+        outputLog.append("Spanning Tree Edges:");
+        int[] mstEdges = new int[Math.max(0, vertexCount - 1)];
+        int mstSize = 0;
 
         while (!pq.isEmpty()) {
             Edge edge = pq.poll();
             if (inMST[edge.v2]) continue;
 
             inMST[edge.v2] = true;
-            mstEdges[edge.v1][edge.v2] = true;
-            mstEdges[edge.v2][edge.v1] = true;
-            outputArea.append("Edge: v" + edge.v1 + " - v" + edge.v2 + " Cost: " + edge.cost + "\n");
+            int id = edges.id(edge.v1, edge.v2);
+            highlights.mark(HighlightModel.EdgeMark.MST, id);
+            mstEdges[mstSize++] = id;
 
             for (int i = 0; i < vertexCount; i++) {
                 if (!inMST[i] && graph[edge.v2][i] != 0) {
@@ -175,6 +176,8 @@ public class GraphVisualizerWithRandomLayout extends JFrame {
                 }
             }
         }
+        EdgeTable listed = edges;
+        outputLog.appendRows(mstSize, i -> listed.describe(mstEdges[i]));
     }
 
     public static void main(String[] args) {
@@ -9,12 +9,13 @@ import java.util.*;
 public class GraphVisualizerWithSpanningTree extends JFrame {
 
     private JTextField vertexField, edgeField;
-    private JTextArea outputArea;
+    private final OutputLog outputLog = new OutputLog();
     private JPanel graphPanel;
     private int vertexCount, edgeCount;
     private int[][] graph;
-    private boolean[][] mstEdges;
-    private Point[] points;
+    private EdgeTable edges;
+    private final HighlightModel highlights = new HighlightModel();
+    private float[] vertexX, vertexY;
 
     public GraphVisualizerWithSpanningTree() {
         setTitle("Graph Visualizer with Spanning Tree");
@@ -42,10 +43,7 @@ public class GraphVisualizerWithSpanningTree extends JFrame {
         add(inputPanel, BorderLayout.NORTH);
 
         // Output Panel
-        outputArea = new JTextArea(10, 30);
-        outputArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(outputArea);
-        add(scrollPane, BorderLayout.EAST);
+        add(new OutputLogPanel(outputLog, 10), BorderLayout.EAST);
 
         // Graph Panel
         graphPanel = new JPanel() {
@@ -64,14 +62,14 @@ public class GraphVisualizerWithSpanningTree extends JFrame {
                     vertexCount = Integer.parseInt(vertexField.getText());
                     edgeCount = Integer.parseInt(edgeField.getText());
                     if (vertexCount <= 0 || edgeCount <= 0) {
-                        outputArea.append("Number of vertices and edges must be greater than zero.\n");
+                        outputLog.append("Number of vertices and edges must be greater than zero.");
                         return;
                     }
                     generateGraph();
-                    mstEdges = null;
+                    highlights.clear();
                     repaint();
                 } catch (NumberFormatException ex) {
-                    outputArea.append("Invalid input. Please enter valid numbers.\n");
+                    outputLog.append("Invalid input. Please enter valid numbers.");
                 }
             }
         });
@@ -83,7 +81,7 @@ public class GraphVisualizerWithSpanningTree extends JFrame {
                     computeSpanningTree();
                     repaint();
                 } else {
-                    outputArea.append("Please generate a graph first.\n");
+                    outputLog.append("Please generate a graph first.");
                 }
             }
         });
@@ -92,9 +90,11 @@ public class GraphVisualizerWithSpanningTree extends JFrame {
     private void generateGraph() {
         Random random = new Random();
         graph = new int[vertexCount][vertexCount];
-        points = new Point[vertexCount];
-        outputArea.setText("");
-        outputArea.append("Graph Details:\n");
+        vertexX = new float[vertexCount];
+        vertexY = new float[vertexCount];
+        edges = new EdgeTable(edgeCount);
+        outputLog.clear();
+        outputLog.append("Graph Details:");
 
         // Generate a connected graph
         for (int i = 1; i < vertexCount; i++) {
@@ -102,7 +102,7 @@ public class GraphVisualizerWithSpanningTree extends JFrame {
             int cost = random.nextInt(99) + 1;
             graph[i][connectedTo] = cost;
             graph[connectedTo][i] = cost;
-            outputArea.append("Edge: v" + i + " - v" + connectedTo + " Cost: " + cost + "\n");
+            edges.add(i, connectedTo, cost);
         }
 
         // Add remaining edges
@@ -113,55 +113,51 @@ public class GraphVisualizerWithSpanningTree extends JFrame {
                 int cost = random.nextInt(99) + 1;
                 graph[v1][v2] = cost;
                 graph[v2][v1] = cost;
-                outputArea.append("Edge: v" + v1 + " - v" + v2 + " Cost: " + cost + "\n");
+                edges.add(v1, v2, cost);
             } else {
                 i--; // Retry if the edge is not valid (self-loop or duplicate)
             }
         }
+        EdgeTable listed = edges;
+        outputLog.appendRows(listed.size(), listed::describe);
 
         // Generate random positions for vertices, without circular layout
         int panelWidth = graphPanel.getWidth();
         int panelHeight = graphPanel.getHeight();
-        int xSpacing = panelWidth / (vertexCount + 1);
-        int ySpacing = panelHeight / (vertexCount + 1);
-        for (int i = 0; i < vertexCount; i++) {
-            points[i] = new Point((i + 1) * xSpacing, (i + 1) * ySpacing);
-        }
+        Layouts.diagonal(vertexCount, panelWidth, panelHeight, vertexX, vertexY);
     }
 
     private void drawSpanningTree(Graphics g) {
-        if (graph == null || mstEdges == null) return;
+        if (graph == null || highlights.isEmpty(HighlightModel.EdgeMark.MST)) return;
 
         Graphics2D g2d = (Graphics2D) g; // Use Graphics2D for better control
 
         // Draw spanning tree edges
-        for (int i = 0; i < vertexCount; i++) {
-            for (int j = i + 1; j < vertexCount; j++) {
-                if (mstEdges[i][j]) {
-                    g2d.setColor(Color.RED);
-                    g2d.setStroke(new BasicStroke(4));  // Bold for MST edges
-                    g2d.drawLine(points[i].x, points[i].y, points[j].x, points[j].y);
-
-                    // Draw the cost label in the middle of the edge
-                    int midX = (points[i].x + points[j].x) / 2;
-                    int midY = (points[i].y + points[j].y) / 2;
-                    g2d.setColor(Color.BLACK);
-                    g2d.drawString(String.valueOf(graph[i][j]), midX, midY);
-                }
-            }
+        for (int e = highlights.next(HighlightModel.EdgeMark.MST, 0); e >= 0; e = highlights.next(HighlightModel.EdgeMark.MST, e + 1)) {
+            int i = edges.getFrom(e);
+            int j = edges.getTo(e);
+            g2d.setColor(Color.RED);
+            g2d.setStroke(new BasicStroke(4));  // Bold for MST edges
+            g2d.drawLine((int) vertexX[i], (int) vertexY[i], (int) vertexX[j], (int) vertexY[j]);
+
+            // Draw the cost label in the middle of the edge
+            int midX = ((int) vertexX[i] + (int) vertexX[j]) / 2;
+            int midY = ((int) vertexY[i] + (int) vertexY[j]) / 2;
+            g2d.setColor(Color.BLACK);
+            g2d.drawString(String.valueOf(edges.getWeight(e)), midX, midY);
         }
 
         // Draw vertices
         for (int i = 0; i < vertexCount; i++) {
             g2d.setColor(Color.BLUE);  // Normal vertices
-            g2d.fillOval(points[i].x - 10, points[i].y - 10, 20, 20);
+            g2d.fillOval((int) vertexX[i] - 10, (int) vertexY[i] - 10, 20, 20);
             g2d.setColor(Color.WHITE);
-            g2d.drawString("v" + i, points[i].x - 5, points[i].y + 5);
+            g2d.drawString("v" + i, (int) vertexX[i] - 5, (int) vertexY[i] + 5);
         }
     }
 
     private void computeSpanningTree() {
-        mstEdges = new boolean[vertexCount][vertexCount];
+        highlights.clear(HighlightModel.EdgeMark.MST);
         boolean[] inMST = new boolean[vertexCount];
         PriorityQueue<Edge> pq = new PriorityQueue<>((e1, e2) -> Integer.compare(e1.cost, e2.cost));
 
@@ -175,7 +171,7 @@ public class GraphVisualizerWithSpanningTree extends JFrame {
         while (!pq.isEmpty()) {
             Edge edge = pq.poll();
             if (!inMST[edge.to]) {
-                mstEdges[edge.from][edge.to] = mstEdges[edge.to][edge.from] = true;
+                highlights.mark(HighlightModel.EdgeMark.MST, edges.id(edge.from, edge.to));
                 inMST[edge.to] = true;
 
                 for (int i = 0; i < vertexCount; i++) {
@@ -185,7 +181,7 @@ public class GraphVisualizerWithSpanningTree extends JFrame {
                 }
             }
         }
-        outputArea.append("Minimum Spanning Tree generated.\n");
+        outputLog.append("Minimum Spanning Tree generated.");
     }
 
     private static class Edge {
@@ -0,0 +1,56 @@
+package fcu.web;
+
+/**
+ * How much of the graph is worth drawing at the current zoom and on-screen density.
+ */
+public enum LevelOfDetail {
+    // Vertex shapes, vertex labels and edge weights
+    FULL(true, true, 0),
+    // Vertex shapes only; edges that land on the same pixels are drawn once
+    NO_LABELS(false, true, 1),
+    // Vertices as single pixels; edges snapped to a coarse grid and merged
+    POINTS(false, false, 3);
+
+    // Thresholds are in items actually visible on screen, not in graph size
+    private static final int LABEL_EDGE_LIMIT = 400;
+    private static final int LABEL_VERTEX_LIMIT = 300;
+    private static final double LABEL_MIN_SCALE = 0.5;
+    private static final double SHAPE_MIN_SCALE = 0.2;
+    private static final double SHAPE_MAX_COVERAGE = 0.25;
+    private static final int SHAPE_AREA = 20 * 20;
+
+    private final boolean labels;
+    private final boolean vertexShapes;
+    private final int mergeCell;
+
+    LevelOfDetail(boolean labels, boolean vertexShapes, int mergeCell) {
+        this.labels = labels;
+        this.vertexShapes = vertexShapes;
+        this.mergeCell = mergeCell;
+    }
+
+    public boolean showsLabels() {
+        return labels;
+    }
+
+    public boolean showsVertexShapes() {
+        return vertexShapes;
+    }
+
+    // Edges whose endpoints fall in the same cells of this size (screen pixels) are drawn once; 0 disables merging
+    public int mergeCell() {
+        return mergeCell;
+    }
+
+    public static LevelOfDetail choose(double scale, int visibleVertices, int visibleEdges, int width, int height) {
+        double area = Math.max(1.0, (double) width * height);
+        boolean crowded = (double) visibleVertices * SHAPE_AREA > area * SHAPE_MAX_COVERAGE;
+        if (scale < SHAPE_MIN_SCALE || crowded) {
+            return POINTS;
+        }
+        if (scale < LABEL_MIN_SCALE || visibleEdges > LABEL_EDGE_LIMIT || visibleVertices > LABEL_VERTEX_LIMIT) {
+            return NO_LABELS;
+        }
+        return FULL;
+    }
+}
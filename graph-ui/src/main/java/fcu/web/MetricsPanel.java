@@ -0,0 +1,88 @@
+package fcu.web;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of the Metrics counters and phase timings, refreshed once a second while it is showing.
+ */
+public class MetricsPanel extends JPanel {
+    private static final String[] COLUMNS = {"Metric", "Count", "Total ms", "Mean ms", "Max ms"};
+
+    private final List<Object[]> rows = new ArrayList<>();
+    private final AbstractTableModel model = new AbstractTableModel() {
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return rows.get(row)[column];
+        }
+    };
+    private final Timer timer = new Timer(1000, e -> refresh());
+
+    public MetricsPanel() {
+        super(new BorderLayout());
+        JTable table = new JTable(model);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_LAST_COLUMN);
+        table.getColumnModel().getColumn(0).setPreferredWidth(180);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(420, 200));
+        add(scrollPane, BorderLayout.CENTER);
+
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            Metrics.reset();
+            refresh();
+        });
+        add(resetButton, BorderLayout.SOUTH);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refresh();
+        timer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        super.removeNotify();
+    }
+
+    public void refresh() {
+        if (!isShowing()) return;
+        rows.clear();
+        for (Map.Entry<String, Long> counter : Metrics.counterValues().entrySet()) {
+            rows.add(new Object[]{counter.getKey(), counter.getValue(), "", "", ""});
+        }
+        for (Map.Entry<String, Metrics.Phase> entry : Metrics.phases().entrySet()) {
+            Metrics.Phase phase = entry.getValue();
+            long count = phase.getCount();
+            rows.add(new Object[]{entry.getKey(), count, millis(phase.getTotalNanos()),
+                    count > 0 ? millis(phase.getTotalNanos() / count) : "", millis(phase.getMaxNanos())});
+        }
+        model.fireTableDataChanged();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,92 @@
+package fcu.web;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Lazy line log for the result listings. Each section is a row count plus a formatter over data the caller
+ * already holds (edge table, MST list, ...), so a listing of a million edges costs one entry here and
+ * only the rows a JList actually paints are ever turned into strings.
+ */
+public class OutputLog extends AbstractListModel<String> {
+    private IntFunction<String>[] formatters = newFormatters(16);
+    // starts[s] is the first row of section s; starts[sections] is the total row count
+    private int[] starts = new int[17];
+    private int sections;
+
+    @Override
+    public int getSize() {
+        return starts[sections];
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        // Last section starting at or before index; empty sections before it are skipped naturally
+        int lo = 0, hi = sections - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (starts[mid] <= index) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return formatters[lo].apply(index - starts[lo]);
+    }
+
+    public void clear() {
+        int size = getSize();
+        Arrays.fill(formatters, 0, sections, null);
+        sections = 0;
+        if (size > 0) {
+            fireIntervalRemoved(this, 0, size - 1);
+        }
+    }
+
+    public void append(String line) {
+        appendRows(1, i -> line);
+    }
+
+    // Adds count rows whose text is produced on demand; the formatter must keep returning the same rows
+    public void appendRows(int count, IntFunction<String> formatter) {
+        if (sections == formatters.length) {
+            formatters = Arrays.copyOf(formatters, sections * 2);
+            starts = Arrays.copyOf(starts, sections * 2 + 1);
+        }
+        int first = getSize();
+        formatters[sections] = formatter;
+        starts[sections + 1] = first + count;
+        sections++;
+        if (count > 0) {
+            fireIntervalAdded(this, first, first + count - 1);
+        }
+    }
+
+    /** Streams every row to out, one per line, formatting them one at a time. */
+    public void export(Writer out) throws IOException {
+        for (int s = 0; s < sections; s++) {
+            for (int i = 0, count = starts[s + 1] - starts[s]; i < count; i++) {
+                out.write(formatters[s].apply(i));
+                out.write(System.lineSeparator());
+            }
+        }
+        out.flush();
+    }
+
+    // Copy of the current sections that later appends and clears do not affect, for exporting off the EDT
+    OutputLog snapshot() {
+        OutputLog copy = new OutputLog();
+        copy.formatters = Arrays.copyOf(formatters, formatters.length);
+        copy.starts = Arrays.copyOf(starts, starts.length);
+        copy.sections = sections;
+        return copy;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static IntFunction<String>[] newFormatters(int capacity) {
+        return (IntFunction<String>[]) new IntFunction[capacity];
+    }
+}
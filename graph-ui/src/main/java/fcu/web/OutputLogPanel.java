@@ -0,0 +1,73 @@
+package fcu.web;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Scrollable view of an OutputLog with an export button. Rows have a fixed height, so the list never
+ * measures (or formats) rows that are not on screen.
+ */
+public class OutputLogPanel extends JPanel {
+    private final OutputLog log;
+    private final JList<String> list;
+
+    public OutputLogPanel(OutputLog log, int visibleRows) {
+        super(new BorderLayout());
+        this.log = log;
+        list = new JList<>(log);
+        list.setPrototypeCellValue("Edge: v1000000 - v1000000 Cost: 99");
+        list.setVisibleRowCount(visibleRows);
+        add(new JScrollPane(list), BorderLayout.CENTER);
+
+        JButton exportButton = new JButton("Export...");
+        exportButton.addActionListener(e -> export());
+        add(exportButton, BorderLayout.SOUTH);
+
+        // Like the text area it replaces, follow what was just appended
+        log.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                list.ensureIndexIsVisible(e.getIndex1());
+                list.ensureIndexIsVisible(e.getIndex0());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+            }
+        });
+    }
+
+    public OutputLog getLog() {
+        return log;
+    }
+
+    // Writes the full listing on a background thread; the rows are formatted one at a time while streaming
+    private void export() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = chooser.getSelectedFile();
+        OutputLog snapshot = log.snapshot();
+        new Thread(() -> {
+            String message;
+            try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                snapshot.export(out);
+                message = "Exported " + snapshot.getSize() + " lines to " + file;
+            } catch (IOException ex) {
+                message = "Export failed: " + ex.getMessage();
+            }
+            String result = message;
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, result));
+        }, "log-export").start();
+    }
+}
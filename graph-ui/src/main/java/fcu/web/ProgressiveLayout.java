@@ -0,0 +1,140 @@
+package fcu.web;
+
+import javax.swing.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Runs a LayoutEngine on a background thread and shows its intermediate positions while it converges.
+ * The worker copies the engine's arrays into a back buffer at most once per frame and swaps it in;
+ * a Swing timer picks up the newest buffer at a capped frame rate. The EDT never waits on layout work,
+ * and frames it did not get to are dropped instead of queued.
+ */
+public class ProgressiveLayout {
+    private static final int FRAMES_PER_SECOND = 30;
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAMES_PER_SECOND;
+
+    /** One published snapshot. x and y are raw engine positions and stay valid until the next frame is shown. */
+    public static final class Frame {
+        public final float[] x, y;
+        private GraphGeometry geometry;
+        private boolean finished;
+        private int run;
+
+        private Frame(int vertexCount) {
+            x = new float[vertexCount];
+            y = new float[vertexCount];
+        }
+
+        public GraphGeometry getGeometry() {
+            return geometry;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "layout");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Timer timer = new Timer(1000 / FRAMES_PER_SECOND, e -> showPending());
+
+    // Back buffer handshake: the worker fills a spare frame and swaps it into pending; the EDT takes pending,
+    // shows it and hands the frame it replaced back as the next spare
+    private final AtomicReference<Frame> pending = new AtomicReference<>();
+    private final AtomicReference<Frame> spare = new AtomicReference<>();
+    private Frame shown;
+
+    private Future<?> task;
+    private volatile int run;
+    private Consumer<Frame> view;
+
+    /**
+     * Starts laying out graph from the given starting positions (NaN means unplaced), cancelling any layout
+     * still running. geometry is called on the layout thread for every published frame and must not modify
+     * the arrays; view is called on the EDT with the newest frame. Must be called on the EDT.
+     */
+    public void start(LayoutEngine engine, AdjacencyIndex graph, float[] x, float[] y,
+                      BiFunction<float[], float[], GraphGeometry> geometry, Consumer<Frame> view) {
+        cancel();
+        int current = ++run;
+        this.view = view;
+        task = worker.submit(() -> {
+            // Next publish time; frames whose geometry is expensive to build are spaced out further
+            // so publishing takes at most a tenth of the layout thread
+            long[] nextPublish = {System.nanoTime()};
+            Metrics.Phase phase = Metrics.phase("layout.run");
+            GraphEvents.Span event = GraphEvents.layout(engine, graph);
+            long start = phase.start();
+            engine.layout(graph, x, y, (px, py) -> {
+                if (Thread.currentThread().isInterrupted() || run != current) return false;
+                long now = System.nanoTime();
+                if (now >= nextPublish[0]) {
+                    publish(current, px, py, false, geometry);
+                    long cost = System.nanoTime() - now;
+                    nextPublish[0] = now + Math.max(FRAME_NANOS, cost * 10);
+                }
+                return true;
+            });
+            phase.stop(start);
+            event.commit();
+            if (run == current && !Thread.currentThread().isInterrupted()) {
+                publish(current, x, y, true, geometry);
+            }
+        });
+        timer.start();
+    }
+
+    /** Stops the running layout; frames it already published are discarded. Must be called on the EDT. */
+    public void cancel() {
+        run++;
+        if (task != null) {
+            task.cancel(true);
+            task = null;
+        }
+        timer.stop();
+        pending.set(null);
+    }
+
+    private void publish(int current, float[] x, float[] y, boolean finished,
+                         BiFunction<float[], float[], GraphGeometry> geometry) {
+        Metrics.Phase phase = Metrics.phase("layout.publish");
+        long start = phase.start();
+        Frame frame = spare.getAndSet(null);
+        if (frame == null || frame.x.length != x.length) {
+            frame = new Frame(x.length);
+        }
+        System.arraycopy(x, 0, frame.x, 0, x.length);
+        System.arraycopy(y, 0, frame.y, 0, y.length);
+        frame.geometry = geometry.apply(frame.x, frame.y);
+        frame.finished = finished;
+        frame.run = current;
+        Frame dropped = pending.getAndSet(frame);
+        if (dropped != null) {
+            spare.set(dropped);
+            Metrics.counter("layout.dropped_frames").increment();
+        }
+        phase.stop(start);
+    }
+
+    private void showPending() {
+        Frame frame = pending.getAndSet(null);
+        if (frame == null || frame.run != run) return;
+        Frame previous = shown;
+        shown = frame;
+        view.accept(frame);
+        if (previous != null) {
+            spare.set(previous);
+        }
+        if (frame.finished) {
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package fcu.web;
+
+import javax.swing.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+
+/**
+ * Zoom/pan transform between world coordinates (layout space) and screen pixels.
+ * screen = world * scale + offset
+ */
+public class Viewport {
+    private static final double MIN_SCALE = 0.01;
+    private static final double MAX_SCALE = 64;
+
+    private double scale = 1;
+    private double offsetX, offsetY;
+    private int changeCount;
+
+    public double getScale() {
+        return scale;
+    }
+
+    // Incremented on every zoom/pan so cached renderings can tell the view moved
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    public int toScreenX(float x) {
+        return (int) Math.round(x * scale + offsetX);
+    }
+
+    public int toScreenY(float y) {
+        return (int) Math.round(y * scale + offsetY);
+    }
+
+    public float toWorldX(double sx) {
+        return (float) ((sx - offsetX) / scale);
+    }
+
+    public float toWorldY(double sy) {
+        return (float) ((sy - offsetY) / scale);
+    }
+
+    public void zoom(double factor, int anchorX, int anchorY) {
+        double newScale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale * factor));
+        // Keep the world point under the anchor fixed on screen
+        offsetX = anchorX - (anchorX - offsetX) * newScale / scale;
+        offsetY = anchorY - (anchorY - offsetY) * newScale / scale;
+        scale = newScale;
+        changeCount++;
+    }
+
+    public void pan(double dx, double dy) {
+        offsetX += dx;
+        offsetY += dy;
+        changeCount++;
+    }
+
+    public void reset() {
+        scale = 1;
+        offsetX = 0;
+        offsetY = 0;
+        changeCount++;
+    }
+
+    // Mouse wheel zooms around the cursor, dragging pans, double click resets
+    public void install(JComponent component) {
+        MouseAdapter adapter = new MouseAdapter() {
+            private int lastX, lastY;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                lastX = e.getX();
+                lastY = e.getY();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) return;
+                pan(e.getX() - lastX, e.getY() - lastY);
+                lastX = e.getX();
+                lastY = e.getY();
+                component.repaint();
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && SwingUtilities.isLeftMouseButton(e)) {
+                    reset();
+                    component.repaint();
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(Math.pow(1.1, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+                component.repaint();
+            }
+        };
+        component.addMouseListener(adapter);
+        component.addMouseMotionListener(adapter);
+        component.addMouseWheelListener(adapter);
+    }
+}